@@ -0,0 +1,383 @@
+package com.pp.taskmanagementbackend.it;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pp.taskmanagementbackend.config.SqlBudgetProperties;
+import com.pp.taskmanagementbackend.config.SqlStatementMetricsFilter;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.function.ThrowingConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * SQL-Budget je Endpoint gegen Embedded-Postgres (echtes Flyway-Schema, ein paar hundert Tasks):
+ * jeder /api-Endpoint wird einmal aufgerufen – lesend und schreibend –, die Anzahl Statements kommt
+ * aus SqlStatementMetricsFilter (Request-Attribut) und muss unter sql-budget.budgets bzw. dem
+ * Standardbudget liegen. Neue Endpoints ohne Aufruf hier lassen den Abdeckungstest fehlschlagen.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("it")
+@DirtiesContext
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SqlBudgetIT {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetIT.class);
+
+    /** So viele Tasks – genug, dass ein N+1 jedes Budget sprengt. */
+    private static final int TASKS = 300;
+    private static final List<String> STATIONS = List.of("IT Fräsen", "IT Drehen", "IT Schleifen", "IT Montage");
+
+    /** Bewusst nicht geprüft (mit Begründung). */
+    private static final Map<String, String> NOT_CALLED = Map.of(
+            "GET /api/tasks/stream", "SSE, bleibt offen; Anmeldung liest nichts aus der DB");
+
+    /** Läuft bis JVM-Ende (eigener Shutdown-Hook), also nach dem Schließen des Kontexts (@DirtiesContext). */
+    private static EmbeddedPostgres pg;
+    private static Path files;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws IOException {
+        pg = EmbeddedPostgres.builder().start();
+        files = Files.createTempDirectory("sql-budget-it");
+        String jdbcUrl = pg.getJdbcUrl("postgres", "postgres");
+        registry.add("spring.datasource.url", () -> jdbcUrl);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("folderpicker.base-path", () -> files.toString());
+        registry.add("attachments.base-path", () -> files.resolve("attachments").toString());
+        registry.add("sql-budget.enabled", () -> "true");
+        registry.add("sql-budget.fail", () -> "false"); // hier sammeln, fail-Modus siehe failModeRejects…
+    }
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private SqlBudgetProperties budget;
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping mappings;
+
+    private final ObjectMapper json = new ObjectMapper();
+    /** "METHODE Pattern" aller geprüften Aufrufe. */
+    private final Set<String> called = new TreeSet<>();
+
+    // per Aufruf eingesammelte IDs für die folgenden Schritte
+    private long stationId;
+    private long taskId;
+    private long imageId;
+    private long textId;
+    private long archivedId;
+    private long workId;
+    private long customerId;
+    private long assigneeId;
+    private long newStationId;
+    private List<Long> column;
+
+    @BeforeAll
+    void seed() throws IOException {
+        for (int i = 0; i < STATIONS.size(); i++) {
+            jdbc.update("INSERT INTO arbeitsstation (name, sort_order) VALUES (?, ?) ON CONFLICT (name) DO NOTHING",
+                    STATIONS.get(i), 100 + i);
+        }
+        stationId = jdbc.queryForObject("SELECT id FROM arbeitsstation WHERE name = ?", Long.class, STATIONS.get(0));
+
+        Files.createDirectories(files.resolve("Kunde A/FA1"));
+        Files.createDirectories(files.resolve("Kunde B"));
+
+        List<String> open = jdbc.queryForList(
+                "SELECT code FROM task_statuses WHERE active AND NOT is_final ORDER BY sort_order", String.class);
+        String done = jdbc.queryForObject(
+                "SELECT code FROM task_statuses WHERE active AND is_final ORDER BY sort_order LIMIT 1", String.class);
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            boolean fin = i % 15 == 0;
+            rows.add(new Object[]{
+                    "Bauteil " + i, "TN-" + (1000 + i % 40), i % 2 == 0 ? "Kunde A" : "Kunde B", "MA " + i % 7,
+                    Date.valueOf(today.plusDays(i % 60 - 20)), 1.5 + i % 8, STATIONS.get(i % STATIONS.size()),
+                    fin ? done : open.get(i % open.size()), i, "FA" + i,
+                    i % 3 == 0 ? "Kunde A/FA1" : (i % 3 == 1 ? "Kunde B/fehlt" : null),
+                    i % 4 == 0 ? "[\"FAI\"]" : null});
+        }
+        jdbc.batchUpdate("INSERT INTO tasks (bezeichnung, teilenummer, kunde, zustaendig, end_datum, aufwand_stunden,"
+                + " arbeitsstation, status, status_code, prioritaet, fa, dateipfad, additional_works)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, 'NEU', ?, ?, ?, ?, ?)", rows);
+        // erledigte Tasks über die Aufbewahrungsfrist hinaus → POST /archive/run hat etwas zu tun
+        jdbc.update("UPDATE tasks SET finished_at = now() - interval '400 days' WHERE finished_at IS NOT NULL");
+        column = jdbc.queryForList("SELECT id FROM tasks WHERE arbeitsstation = ? ORDER BY prioritaet LIMIT 15",
+                Long.class, STATIONS.get(0));
+        taskId = column.get(1);
+    }
+
+    @TestFactory
+    @Order(1)
+    Stream<DynamicTest> everyEndpointStaysWithinBudget() {
+        return Stream.of(
+                // Tasks
+                call(() -> get("/api/tasks")),
+                call(() -> get("/api/tasks/search").param("q", "Bauteil 1")),
+                call(() -> get("/api/tasks/{id}", taskId)),
+                call(() -> post("/api/tasks").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bezeichnung\":\"IT neu\",\"arbeitsstation\":\"" + STATIONS.get(0)
+                                + "\",\"statusCode\":\"NEU\"}")),
+                call(() -> patch("/api/tasks/{id}", taskId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"zusätzlicheInfos\":\"IT\"}")),
+                call(() -> patch("/api/tasks/{id}/status", taskId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"statusCode\":\"NEU\"}")),
+                call(() -> patch("/api/tasks/sort").contentType(MediaType.APPLICATION_JSON)
+                        .content(sortBody(true))),
+                call(() -> put("/api/tasks/sort").contentType(MediaType.APPLICATION_JSON)
+                        .content(sortBody(false))),
+                call(() -> get("/api/tasks/stream/stats")),
+
+                // Anhänge
+                call(() -> multipart("/api/tasks/{taskId}/attachments", taskId)
+                        .file(new MockMultipartFile("file", "bild.png", MediaType.IMAGE_PNG_VALUE, png())),
+                        r -> imageId = id(r)),
+                call(() -> post("/api/tasks/{taskId}/attachments/stream", taskId).param("filename", "notiz.txt")
+                        .contentType(MediaType.TEXT_PLAIN).content("Hallo Halle ".repeat(200)),
+                        r -> textId = id(r)),
+                call(() -> get("/api/tasks/{taskId}/attachments", taskId)),
+                call(() -> get("/api/tasks/{taskId}/attachments/{id}", taskId, textId)),
+                call(() -> get("/api/tasks/{taskId}/attachments/{id}/thumb", taskId, imageId)),
+                call(() -> get("/api/attachments").param("taskIds", column.stream().map(String::valueOf).toArray(String[]::new))),
+                call(() -> get("/api/attachments/maintenance/stats")),
+                call(() -> delete("/api/tasks/{taskId}/attachments/{id}", taskId, imageId)),
+                call(() -> post("/api/attachments/maintenance/sweep")),
+                call(() -> post("/api/attachments/maintenance/migrate-layout")),
+
+                // Archiv
+                call(() -> post("/api/tasks/archive/run"), r -> archivedId = jdbc.queryForObject(
+                        "SELECT min(id) FROM tasks_archive", Long.class)),
+                call(() -> get("/api/tasks/archive")),
+                call(() -> get("/api/tasks/archive/{id}", archivedId)),
+
+                // Dashboards, Statistik, Vorschläge, Einstellungen
+                call(() -> get("/api/dashboard/backlog").param("includeNoDate", "true")),
+                call(() -> get("/api/dashboard/utilization")
+                        .param("from", LocalDate.now().toString())
+                        .param("to", LocalDate.now().plusDays(27).toString())),
+                call(() -> get("/api/stats/auslastung")),
+                call(() -> get("/api/suggest").param("type", "customer").param("q", "Ku")),
+                call(() -> get("/api/settings/dueDate")),
+                call(() -> put("/api/settings/dueDate").contentType(MediaType.APPLICATION_JSON)
+                        .content(body("/api/settings/dueDate"))),
+
+                // Stammdaten
+                call(() -> get("/api/statuses").param("activeOnly", "false")),
+                call(() -> post("/api/statuses").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"code\":\"IT_PRUEFEN\",\"label\":\"Prüfen\",\"colorBg\":\"#eeeeee\","
+                                + "\"colorFg\":\"#111111\",\"sortOrder\":99,\"isFinal\":false,\"active\":true}")),
+                call(() -> put("/api/statuses/{code}", "IT_PRUEFEN").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"code\":\"IT_PRUEFEN\",\"label\":\"Prüfung\",\"colorBg\":\"#eeeeee\","
+                                + "\"colorFg\":\"#111111\",\"sortOrder\":98,\"isFinal\":false,\"active\":true}")),
+                call(() -> delete("/api/statuses/{code}", "IT_PRUEFEN")),
+                call(() -> get("/api/arbeitsstationen")),
+                call(() -> get("/api/arbeitsstationen/{id}", stationId)),
+                call(() -> get("/api/arbeitsstationen/name/{name}", STATIONS.get(0))),
+                call(() -> post("/api/arbeitsstationen").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"IT Neu\",\"sortOrder\":200}"), r -> newStationId = id(r)),
+                call(() -> put("/api/arbeitsstationen/{id}", newStationId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"IT Neu 2\",\"sortOrder\":201}")),
+                call(() -> patch("/api/arbeitsstationen/reorder").contentType(MediaType.APPLICATION_JSON)
+                        .content(body("/api/arbeitsstationen"))),
+                call(() -> delete("/api/arbeitsstationen/{id}", newStationId)),
+                call(() -> post("/api/arbeitsstationen").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"IT Weg\",\"sortOrder\":202}")),
+                call(() -> delete("/api/arbeitsstationen/name/{name}", "IT Weg")),
+                call(() -> get("/api/additional-works")),
+                call(() -> post("/api/additional-works").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"code\":\"IT_LACK\",\"label\":\"Lackieren\"}"), r -> workId = id(r)),
+                call(() -> get("/api/additional-works/{id}", workId)),
+                call(() -> put("/api/additional-works/{id}", workId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"label\":\"Lackieren (extern)\"}")),
+                call(() -> delete("/api/additional-works/{id}", workId)),
+                call(() -> get("/api/customers")),
+                call(() -> post("/api/customers").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"IT Kunde\"}"), r -> customerId = id(r)),
+                call(() -> put("/api/customers/{id}", customerId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"IT Kunde 2\"}")),
+                call(() -> delete("/api/customers/{id}", customerId)),
+                call(() -> get("/api/assignees")),
+                call(() -> post("/api/assignees").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"IT Werker\"}"), r -> assigneeId = id(r)),
+                call(() -> put("/api/assignees/{id}", assigneeId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"IT Werkerin\"}")),
+                call(() -> delete("/api/assignees/{id}", assigneeId)),
+
+                // Dateiablage
+                call(() -> get("/api/fs/base-label")),
+                call(() -> get("/api/fs/subfolders").param("sub", "Kunde A")),
+                call(() -> post("/api/fs/index/rescan")),
+                call(() -> get("/api/fs/search").param("q", "FA")),
+                call(() -> get("/api/fs/exists").param("sub", "Kunde A/FA1")),
+                call(() -> post("/api/fs/validate").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"paths\":[\"Kunde A/FA1\",\"Kunde B/fehlt\"]}")),
+                call(() -> get("/api/fs/validate-tasks")),
+                call(() -> post("/api/fs/mkdir").param("sub", "Kunde B").param("name", "Neu")),
+                call(() -> get("/api/fs/empty").param("sub", "Kunde B").param("name", "Neu")),
+                call(() -> post("/api/fs/rename").param("sub", "Kunde B").param("from", "Neu").param("to", "Neu2")),
+                call(() -> delete("/api/fs/rmdir").param("sub", "Kunde B").param("name", "Neu2")),
+                call(() -> get("/api/fs/health")),
+
+                // zuletzt: Task löschen (Outbox für seine Anhänge)
+                call(() -> delete("/api/tasks/{id}", taskId)),
+
+                DynamicTest.dynamicTest("alle /api-Endpoints abgedeckt", this::assertAllEndpointsCalled));
+    }
+
+    /** sql-budget.fail=true: Überschreitung kommt als 500 beim Client an, der gepufferte Body nicht. */
+    @Test
+    @Order(2)
+    void failModeRejectsResponseOverBudget() {
+        Integer before = budget.getBudgets().get("GET /api/tasks");
+        budget.setFail(true);
+        budget.getBudgets().put("GET /api/tasks", 0);
+        try {
+            ResponseEntity<String> res = rest.getForEntity("/api/tasks", String.class);
+            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, res.getStatusCode());
+            assertFalse(res.getBody() != null && res.getBody().contains("bezeichnung"),
+                    "Task-Liste trotz Budget-Überschreitung ausgeliefert");
+        } finally {
+            budget.setFail(false);
+            if (before != null) budget.getBudgets().put("GET /api/tasks", before);
+            else budget.getBudgets().remove("GET /api/tasks");
+        }
+    }
+
+    private DynamicTest call(Callable<MockHttpServletRequestBuilder> request) {
+        return call(request, r -> { });
+    }
+
+    private DynamicTest call(Callable<MockHttpServletRequestBuilder> request, ThrowingConsumer<MvcResult> then) {
+        return DynamicTest.dynamicTest(describe(request), () -> {
+            MvcResult r = mvc.perform(request.call()).andReturn();
+            String method = r.getRequest().getMethod();
+            Object pattern = r.getRequest().getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Object count = r.getRequest().getAttribute(SqlStatementMetricsFilter.COUNT_ATTRIBUTE);
+            String where = method + " " + r.getRequest().getRequestURI();
+            assertNotNull(pattern, where + ": kein Mapping");
+            assertNotNull(count, where + ": SqlStatementMetricsFilter nicht aktiv");
+            called.add(method + " " + pattern);
+
+            int status = r.getResponse().getStatus();
+            assertTrue(status >= 200 && status < 300,
+                    where + " → HTTP " + status + ": " + r.getResponse().getContentAsString());
+            int limit = budget.budgetFor(method, pattern.toString());
+            log.debug("[SQL] {} {}: {} / {}", method, pattern, count, limit);
+            assertTrue((Integer) count <= limit,
+                    method + " " + pattern + ": " + count + " SQL-Statements, Budget " + limit);
+            then.accept(r);
+        });
+    }
+
+    /** Anzeigename vor der Ausführung (IDs stehen dann noch nicht fest): Methode + Pfad-Template. */
+    private static String describe(Callable<MockHttpServletRequestBuilder> request) {
+        try {
+            var req = request.call().buildRequest(new org.springframework.mock.web.MockServletContext());
+            return req.getMethod() + " " + req.getRequestURI().replaceAll("/\\d+", "/{id}");
+        } catch (Exception e) {
+            return "Aufruf";
+        }
+    }
+
+    private void assertAllEndpointsCalled() {
+        Set<String> missing = new TreeSet<>();
+        for (RequestMappingInfo info : mappings.getHandlerMethods().keySet()) {
+            if (info.getPathPatternsCondition() == null) continue;
+            for (String pattern : info.getPathPatternsCondition().getPatternValues()) {
+                if (!pattern.startsWith("/api/")) continue;
+                info.getMethodsCondition().getMethods().forEach(m -> {
+                    String key = m.name() + " " + pattern;
+                    if (!called.contains(key) && !NOT_CALLED.containsKey(key)) missing.add(key);
+                });
+            }
+        }
+        assertTrue(missing.isEmpty(), "Endpoints ohne Budget-Prüfung in SqlBudgetIT: " + missing);
+    }
+
+    private String sortBody(boolean reversed) {
+        List<Long> ids = new ArrayList<>(column);
+        if (reversed) java.util.Collections.reverse(ids);
+        return "{\"arbeitsstationId\":" + stationId + ",\"orderedIds\":" + ids + "}";
+    }
+
+    /** Aktuellen Stand eines GET-Endpoints als Body für das zugehörige PUT/PATCH. */
+    private String body(String path) throws Exception {
+        return mvc.perform(get(path)).andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private long id(MvcResult r) throws Exception {
+        JsonNode node = json.readTree(r.getResponse().getContentAsString(StandardCharsets.UTF_8));
+        return node.path("id").asLong();
+    }
+
+    private static byte[] png() throws IOException {
+        BufferedImage img = new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, "png", out);
+        return out.toByteArray();
+    }
+}
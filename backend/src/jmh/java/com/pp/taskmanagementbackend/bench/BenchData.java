@@ -0,0 +1,123 @@
+package com.pp.taskmanagementbackend.bench;
+
+import com.pp.taskmanagementbackend.model.AdditionalWork;
+import com.pp.taskmanagementbackend.model.Arbeitsstation;
+import com.pp.taskmanagementbackend.model.Task;
+import com.pp.taskmanagementbackend.model.TaskStatusEntity;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Feste synthetische Datensätze für die Benchmarks (gleicher Seed → gleiche Daten je Lauf).
+ * Termine liegen relativ zu heute (-30 … +120 Tage), damit die Verteilung über die Zeit gleich bleibt
+ * (überfällig/bald/später) – sonst würden ältere Läufe mit lauter überfälligen Tasks verglichen.
+ */
+final class BenchData {
+
+    static final long SEED = 42L;
+
+    static final String[] STATIONS = {
+            "DMG 1", "DMG 2", "Hermle", "Mazak", "Drehen 1", "Drehen 2",
+            "Fräsen 3", "Schleifen", "Erodieren", "Montage", "QS", "Versand"};
+    static final String[] STATUS_CODES = {"NEU", "TO_DO", "IN_BEARBEITUNG", "WARTEN", "FERTIG"};
+    static final String[] ADDITIONAL_WORKS = {"fai", "qs", "härten", "eloxieren", "messprotokoll"};
+
+    private BenchData() {
+    }
+
+    static List<Task> tasks(int size) {
+        Random rnd = new Random(SEED);
+        LocalDate today = LocalDate.now();
+        List<Task> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task t = new Task();
+            t.setId((long) i + 1);
+            t.setBezeichnung("Bauteil " + i);
+            t.setTeilenummer("TN-" + (100000 + rnd.nextInt(900000)));
+            t.setKunde("Kunde " + rnd.nextInt(200));
+            t.setZuständig("MA " + rnd.nextInt(30));
+            t.setZusätzlicheInfos(rnd.nextInt(4) == 0 ? "Hinweis " + i : null);
+            t.setEndDatum(rnd.nextInt(20) == 0 ? null : today.plusDays(rnd.nextInt(151) - 30));
+            t.setAufwandStunden(rnd.nextInt(10) == 0 ? null : 0.5 + rnd.nextInt(32) / 2.0);
+            t.setArbeitsstation(STATIONS[rnd.nextInt(STATIONS.length)]);
+            // ~10 % fertig, Rest verteilt
+            t.setStatusCode(rnd.nextInt(10) == 0 ? "FERTIG" : STATUS_CODES[rnd.nextInt(STATUS_CODES.length - 1)]);
+            t.setPrioritaet(i % 500);
+            t.setFai(rnd.nextBoolean());
+            t.setQs(rnd.nextBoolean());
+            t.setStk(1 + rnd.nextInt(500));
+            t.setFa("FA" + (20000 + i));
+            t.setDateipfad("Kunde " + (i % 200) + "/TN-" + i);
+            t.setVersion(rnd.nextInt(20));
+            t.setAdditionalWorks(rnd.nextBoolean() ? null : "[\"" + ADDITIONAL_WORKS[rnd.nextInt(ADDITIONAL_WORKS.length)]
+                    + "\",\"" + ADDITIONAL_WORKS[rnd.nextInt(ADDITIONAL_WORKS.length)] + "\"]");
+            out.add(t);
+        }
+        return out;
+    }
+
+    static List<Arbeitsstation> stations() {
+        List<Arbeitsstation> out = new ArrayList<>();
+        for (int i = 0; i < STATIONS.length; i++) {
+            Arbeitsstation a = new Arbeitsstation(STATIONS[i], i);
+            a.setId((long) i + 1);
+            a.setDailyCapacityHours(new BigDecimal(i % 3 == 0 ? "16.00" : "8.00"));
+            out.add(a);
+        }
+        return out;
+    }
+
+    static List<TaskStatusEntity> statuses() {
+        List<TaskStatusEntity> out = new ArrayList<>();
+        for (int i = 0; i < STATUS_CODES.length; i++) {
+            TaskStatusEntity s = new TaskStatusEntity();
+            s.setCode(STATUS_CODES[i]);
+            s.setLabel("Status " + STATUS_CODES[i]);
+            s.setSortOrder(i);
+            s.setFinal("FERTIG".equals(STATUS_CODES[i]));
+            s.setActive(true);
+            out.add(s);
+        }
+        return out;
+    }
+
+    static List<AdditionalWork> additionalWorks() {
+        List<AdditionalWork> out = new ArrayList<>();
+        for (int i = 0; i < ADDITIONAL_WORKS.length; i++) {
+            AdditionalWork w = new AdditionalWork();
+            w.setId((long) i + 1);
+            w.setCode(ADDITIONAL_WORKS[i]);
+            w.setLabel(ADDITIONAL_WORKS[i].toUpperCase());
+            out.add(w);
+        }
+        return out;
+    }
+
+    /**
+     * Repository-Attrappe ohne DB: parameterlose Methoden aus {@code results} (z. B. "findAll"),
+     * alles andere wirft UnsupportedOperationException.
+     */
+    @SuppressWarnings("unchecked")
+    static <R> R repository(Class<R> type, Map<String, Object> results) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            String name = method.getName();
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (name) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "(bench)";
+                };
+            }
+            if ((args == null || args.length == 0) && results.containsKey(name)) {
+                return results.get(name);
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + name);
+        });
+    }
+}
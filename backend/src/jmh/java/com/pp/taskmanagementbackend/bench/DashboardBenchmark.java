@@ -0,0 +1,71 @@
+package com.pp.taskmanagementbackend.bench;
+
+import com.pp.taskmanagementbackend.controller.DashboardBacklogController;
+import com.pp.taskmanagementbackend.controller.DashboardUtilizationController;
+import com.pp.taskmanagementbackend.repository.AdditionalWorkRepository;
+import com.pp.taskmanagementbackend.repository.ArbeitsstationRepository;
+import com.pp.taskmanagementbackend.repository.StationDayLoadRepository;
+import com.pp.taskmanagementbackend.repository.TaskRepository;
+import com.pp.taskmanagementbackend.repository.TaskStatusRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard-Endpoints ohne DB: die Controller bekommen Repository-Attrappen mit dem festen Datensatz,
+ * gemessen wird Aggregation (Auslastung, Quelle "Tasks") bzw. Filter + DTO-Bau + Sortierung (Rückstand).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    private DashboardUtilizationController utilization;
+    private DashboardBacklogController backlog;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup
+    public void setup() {
+        TaskRepository tasks = BenchData.repository(TaskRepository.class, Map.of("findAll", BenchData.tasks(size)));
+        utilization = new DashboardUtilizationController(
+                tasks,
+                BenchData.repository(ArbeitsstationRepository.class, Map.of("findAll", BenchData.stations())),
+                BenchData.repository(StationDayLoadRepository.class, Map.of()));
+        backlog = new DashboardBacklogController(
+                tasks,
+                BenchData.repository(TaskStatusRepository.class, Map.of("findAll", BenchData.statuses())),
+                BenchData.repository(AdditionalWorkRepository.class, Map.of("findAll", BenchData.additionalWorks())));
+        from = LocalDate.now();
+        to = from.plusDays(27); // 4 Wochen wie die Heatmap
+    }
+
+    @Benchmark
+    public List<DashboardUtilizationController.StationUtilizationDto> utilizationFromTasks() {
+        return utilization.getUtilization(from, to, null).getBody();
+    }
+
+    @Benchmark
+    public List<DashboardBacklogController.TaskBacklogDto> backlogDtos() {
+        return backlog.getBacklog(null, null, null, true).getBody();
+    }
+}
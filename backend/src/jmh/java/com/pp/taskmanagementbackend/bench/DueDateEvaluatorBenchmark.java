@@ -0,0 +1,58 @@
+package com.pp.taskmanagementbackend.bench;
+
+import com.pp.taskmanagementbackend.model.Task;
+import com.pp.taskmanagementbackend.service.DueDateEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/** Dringlichkeit je Task: Kalendertage (visual) und Arbeitstage (planning, Schleife über die Tage). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DueDateEvaluatorBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    private LocalDate[] dueDates;
+    private LocalDate today;
+    private final Set<LocalDate> holidays = Collections.emptySet();
+
+    @Setup
+    public void setup() {
+        today = LocalDate.now();
+        dueDates = BenchData.tasks(size).stream().map(Task::getEndDatum).toArray(LocalDate[]::new);
+    }
+
+    @Benchmark
+    public void calcVisualSeverity(Blackhole bh) {
+        for (LocalDate due : dueDates) {
+            bh.consume(DueDateEvaluator.calcVisualSeverity(due, today));
+        }
+    }
+
+    @Benchmark
+    public void calcPlanningSeverity(Blackhole bh) {
+        for (LocalDate due : dueDates) {
+            bh.consume(DueDateEvaluator.calcPlanningSeverity(due, today, holidays));
+        }
+    }
+}
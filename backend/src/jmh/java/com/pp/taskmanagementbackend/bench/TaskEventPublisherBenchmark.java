@@ -0,0 +1,94 @@
+package com.pp.taskmanagementbackend.bench;
+
+import com.pp.taskmanagementbackend.config.EventBusProperties;
+import com.pp.taskmanagementbackend.config.SseProperties;
+import com.pp.taskmanagementbackend.config.VirtualThreadsConfig;
+import com.pp.taskmanagementbackend.events.TaskBusEvent;
+import com.pp.taskmanagementbackend.events.TaskChangeListener;
+import com.pp.taskmanagementbackend.events.TaskEventBus;
+import com.pp.taskmanagementbackend.events.TaskEventPublisher;
+import com.pp.taskmanagementbackend.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Ein Task-Update an N verbundene Streams (Broadcast inkl. Empfängerauswahl und SSE-Formatierung,
+ * ohne Netzwerk). filter=none: alle Streams ungefiltert; filter=station: jeder Stream hört auf eine
+ * Station, das Event trifft nur deren Streams (Stationsindex).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskEventPublisherBenchmark {
+
+    @Param({"10", "100", "500"})
+    int emitters;
+
+    @Param({"none", "station"})
+    String filter;
+
+    private TaskEventPublisher publisher;
+    private Task task;
+
+    @Setup
+    public void setup() {
+        SseProperties props = new SseProperties();
+        props.setMaxSubscribers(0);
+        TaskEventBus noBus = new TaskEventBus() {
+            @Override
+            public void publish(TaskBusEvent event) {
+            }
+
+            @Override
+            public void subscribe(Consumer<TaskBusEvent> handler) {
+            }
+        };
+        publisher = new TaskEventPublisher(new VirtualThreadsConfig(false), props,
+                new StaticListableBeanFactory().getBeanProvider(TaskChangeListener.class),
+                noBus, new EventBusProperties(), DiscardingEmitter::new);
+
+        boolean byStation = "station".equals(filter);
+        for (int i = 0; i < emitters; i++) {
+            List<String> stations = byStation ? List.of(BenchData.STATIONS[i % BenchData.STATIONS.length]) : null;
+            publisher.register(stations, null);
+        }
+        task = BenchData.tasks(1).get(0);
+        task.setArbeitsstation(BenchData.STATIONS[0]);
+    }
+
+    @Benchmark
+    public int broadcast() {
+        publisher.onTaskSaved(task);
+        return publisher.getSubscriberCount();
+    }
+
+    /** Formatiert jedes Event wie ein echter Stream ({@code build()}) und verwirft das Ergebnis. */
+    static final class DiscardingEmitter extends SseEmitter {
+        DiscardingEmitter() {
+            super(0L);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.pp.taskmanagementbackend.bench;
+
+import com.pp.taskmanagementbackend.api.dto.TaskDto;
+import com.pp.taskmanagementbackend.mapper.TaskMapper;
+import com.pp.taskmanagementbackend.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** TaskMapper.toDto über die komplette Liste – entspricht GET /api/tasks ohne DB und JSON. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskMapperBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int size;
+
+    private List<Task> tasks;
+
+    @Setup
+    public void setup() {
+        tasks = BenchData.tasks(size);
+    }
+
+    @Benchmark
+    public void toDto(Blackhole bh) {
+        for (Task t : tasks) {
+            TaskDto dto = TaskMapper.toDto(t);
+            bh.consume(dto);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.pp.taskmanagementbackend.loadtest;
+
+import org.flywaydb.core.Flyway;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetische Daten auf Basis des echten Schemas: erst Flyway (inkl. Seeds für Stationen und
+ * Status), dann fehlende Stationen und N Tasks per Batch-Insert. Gleicher Seed → gleiche Daten;
+ * Termine relativ zu heute (-30 … +120 Tage), damit Dashboards immer ähnlich viel zu tun haben.
+ */
+final class LoadDataGenerator {
+
+    private static final String[] CUSTOMERS = {
+            "Alpha GmbH", "Beta AG", "Gamma KG", "Delta Tools", "Omega Tools", "Sigma Technik",
+            "Kappa Maschinenbau", "Lambda Medizintechnik", "Zeta Automotive", "Theta Aerospace"};
+    private static final String[] ADDITIONAL_WORKS = {"FAI", "QS", "HAERTEN", "ELOXIEREN"};
+
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+    private final long seed;
+
+    LoadDataGenerator(String jdbcUrl, String user, String password, long seed) {
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+        this.seed = seed;
+    }
+
+    void generate(int tasks, int stations) throws SQLException {
+        Flyway.configure()
+                .dataSource(jdbcUrl, user, password)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        try (Connection c = DriverManager.getConnection(batchUrl(), user, password)) {
+            c.setAutoCommit(false);
+            List<String> stationNames = ensureStations(c, stations);
+            List<String> openCodes = statusCodes(c, false);
+            List<String> finalCodes = statusCodes(c, true);
+            insertTasks(c, tasks, stationNames, openCodes, finalCodes);
+            c.commit();
+            try (Statement st = c.createStatement()) {
+                c.setAutoCommit(true);
+                st.execute("ANALYZE");
+            }
+        }
+    }
+
+    private String batchUrl() {
+        return jdbcUrl + (jdbcUrl.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+    }
+
+    /** Seed-Stationen aus V2 plus "Halle 2 – n", bis die gewünschte Anzahl erreicht ist. */
+    private static List<String> ensureStations(Connection c, int wanted) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT name FROM arbeitsstation ORDER BY sort_order, id")) {
+            while (rs.next()) names.add(rs.getString(1));
+        }
+        try (PreparedStatement ps = c.prepareStatement(
+                "INSERT INTO arbeitsstation (name, sort_order) VALUES (?, ?) ON CONFLICT (name) DO NOTHING")) {
+            for (int i = names.size(); i < wanted; i++) {
+                String name = "Halle 2 – " + (i + 1);
+                ps.setString(1, name);
+                ps.setInt(2, i);
+                ps.addBatch();
+                names.add(name);
+            }
+            ps.executeBatch();
+        }
+        return names;
+    }
+
+    private static List<String> statusCodes(Connection c, boolean isFinal) throws SQLException {
+        List<String> codes = new ArrayList<>();
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT code FROM task_statuses WHERE active AND is_final = ? ORDER BY sort_order")) {
+            ps.setBoolean(1, isFinal);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) codes.add(rs.getString(1));
+            }
+        }
+        if (codes.isEmpty()) throw new IllegalStateException("task_statuses ohne " + (isFinal ? "finalen" : "offenen")
+                + " Status – Flyway-Seeds fehlen?");
+        return codes;
+    }
+
+    private void insertTasks(Connection c, int count, List<String> stations, List<String> openCodes,
+                             List<String> finalCodes) throws SQLException {
+        Random rnd = new Random(seed);
+        LocalDate today = LocalDate.now();
+        int[] prio = new int[stations.size()];
+        String sql = "INSERT INTO tasks (bezeichnung, teilenummer, kunde, zustaendig, zusaetzliche_infos, end_datum,"
+                + " aufwand_stunden, arbeitsstation, status, status_code, prioritaet, fai, qs, stk, fa, dateipfad,"
+                + " additional_works) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (int i = 0; i < count; i++) {
+                int s = rnd.nextInt(stations.size());
+                // ~10 % final, Rest über die offenen Status verteilt
+                String code = rnd.nextInt(10) == 0
+                        ? finalCodes.get(rnd.nextInt(finalCodes.size()))
+                        : openCodes.get(rnd.nextInt(openCodes.size()));
+                String customer = CUSTOMERS[rnd.nextInt(CUSTOMERS.length)];
+                String teilenummer = "TN-" + (100000 + rnd.nextInt(900000));
+
+                ps.setString(1, "Bauteil " + (i + 1));
+                ps.setString(2, teilenummer);
+                ps.setString(3, customer);
+                ps.setString(4, "MA " + rnd.nextInt(30));
+                ps.setString(5, rnd.nextInt(4) == 0 ? "Hinweis " + i : null);
+                if (rnd.nextInt(20) == 0) {
+                    ps.setNull(6, Types.DATE);
+                } else {
+                    ps.setDate(6, Date.valueOf(today.plusDays(rnd.nextInt(151) - 30)));
+                }
+                if (rnd.nextInt(10) == 0) {
+                    ps.setNull(7, Types.DOUBLE);
+                } else {
+                    ps.setDouble(7, 0.5 + rnd.nextInt(32) / 2.0);
+                }
+                ps.setString(8, stations.get(s));
+                ps.setString(9, legacyStatus(code));
+                ps.setString(10, code);
+                ps.setInt(11, prio[s]++);
+                ps.setBoolean(12, rnd.nextBoolean());
+                ps.setBoolean(13, rnd.nextBoolean());
+                ps.setInt(14, 1 + rnd.nextInt(500));
+                ps.setString(15, "FA" + (20000 + i));
+                ps.setString(16, customer + "/" + teilenummer);
+                ps.setString(17, rnd.nextBoolean() ? null
+                        : "[\"" + ADDITIONAL_WORKS[rnd.nextInt(ADDITIONAL_WORKS.length)] + "\"]");
+                ps.addBatch();
+                if ((i + 1) % 1000 == 0) ps.executeBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /** Alte status-Spalte (CHECK aus V1) passend zum Code befüllen. */
+    private static String legacyStatus(String code) {
+        return switch (code) {
+            case "TO_DO", "IN_BEARBEITUNG", "FERTIG" -> code;
+            default -> "NEU";
+        };
+    }
+}
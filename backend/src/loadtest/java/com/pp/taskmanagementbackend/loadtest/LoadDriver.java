@@ -0,0 +1,238 @@
+package com.pp.taskmanagementbackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Szenario "Tablets in der Halle": je Client ein offener SSE-Stream (/api/tasks/stream) und eine
+ * Schleife aus gewichteten Operationen mit Denkpause:
+ *   list 35 % (GET /api/tasks), patch 25 % (PATCH /api/tasks/{id}), sort 10 % (PATCH /api/tasks/sort),
+ *   utilization 15 %, backlog 15 % (Dashboards).
+ * Gemessen wird erst nach der Aufwärmphase; jeder Client hat einen eigenen Seed (reproduzierbare Folge).
+ */
+final class LoadDriver {
+
+    static final String[] OPS = {"list", "patch", "sort", "utilization", "backlog"};
+    private static final int[] WEIGHTS = {35, 25, 10, 15, 15};
+    /** So viele Karten verschiebt ein Sortier-Request (Ausschnitt einer Spalte). */
+    private static final int SORT_WINDOW = 15;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(120);
+
+    private final LoadTest.Config cfg;
+    private final String baseUrl;
+    private final HttpClient http;
+    private final ObjectMapper json = new ObjectMapper();
+
+    /** Stations-ID → Task-IDs in Board-Reihenfolge (Stand zu Beginn). */
+    private final Map<Long, List<Long>> columns = new HashMap<>();
+    private final List<Long> taskIds = new ArrayList<>();
+
+    LoadDriver(String baseUrl, LoadTest.Config cfg) {
+        this.baseUrl = baseUrl;
+        this.cfg = cfg;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    LoadReport run() throws Exception {
+        loadBoard();
+        LoadReport report = new LoadReport(OPS);
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(cfg.warmupSeconds()).toNanos();
+        long end = measureFrom + Duration.ofSeconds(cfg.durationSeconds()).toNanos();
+
+        long[] ssePerClient = new long[cfg.clients()];
+        List<Thread> streams = new ArrayList<>();
+        for (int i = 0; i < cfg.clients(); i++) {
+            int client = i;
+            Thread t = new Thread(() -> stream(client, end, report, ssePerClient), "load-sse-" + i);
+            t.setDaemon(true);
+            t.start();
+            streams.add(t);
+        }
+
+        CountDownLatch done = new CountDownLatch(cfg.clients());
+        for (int i = 0; i < cfg.clients(); i++) {
+            int client = i;
+            Thread t = new Thread(() -> {
+                try {
+                    tablet(client, measureFrom, end, report);
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+        done.await();
+        for (Thread t : streams) t.join(5_000);
+        report.finish(cfg.durationSeconds(), ssePerClient);
+        return report;
+    }
+
+    /** Stationen und Spalten einmal laden – daraus wählen patch/sort ihre Ziele. */
+    private void loadBoard() throws Exception {
+        Map<String, Long> stationIds = new HashMap<>();
+        for (JsonNode s : json.readTree(get("/api/arbeitsstationen"))) {
+            stationIds.put(s.path("name").asText(), s.path("id").asLong());
+        }
+        record Card(long id, int prio) {}
+        Map<Long, List<Card>> cards = new HashMap<>();
+        for (JsonNode t : json.readTree(get("/api/tasks"))) {
+            long id = t.path("id").asLong();
+            taskIds.add(id);
+            Long station = stationIds.get(t.path("arbeitsstation").asText());
+            if (station != null) {
+                cards.computeIfAbsent(station, k -> new ArrayList<>()).add(new Card(id, t.path("prioritaet").asInt()));
+            }
+        }
+        cards.forEach((station, list) -> {
+            list.sort(Comparator.comparingInt(Card::prio));
+            columns.put(station, list.stream().map(Card::id).toList());
+        });
+        if (taskIds.isEmpty()) throw new IllegalStateException("Keine Tasks unter " + baseUrl + "/api/tasks");
+        System.out.printf("[loadtest] Board: %d Tasks, %d Spalten%n", taskIds.size(), columns.size());
+    }
+
+    private InputStream get(String path) throws Exception {
+        HttpResponse<InputStream> res = http.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT).GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+        if (res.statusCode() != 200) throw new IllegalStateException("GET " + path + " → " + res.statusCode());
+        return res.body();
+    }
+
+    private void tablet(int client, long measureFrom, long end, LoadReport report) {
+        Random rnd = new Random(cfg.seed() + client);
+        List<Long> stations = new ArrayList<>(columns.keySet());
+        Collections.sort(stations);
+        int n = 0;
+        while (System.nanoTime() < end) {
+            String op = pick(rnd);
+            HttpRequest req = request(op, rnd, stations, client, n++);
+            long t0 = System.nanoTime();
+            LoadReport.Samples samples = report.op(op);
+            try {
+                HttpResponse<Void> res = http.send(req, HttpResponse.BodyHandlers.discarding());
+                long t1 = System.nanoTime();
+                if (t0 >= measureFrom && t1 <= end) {
+                    samples.add(t1 - t0);
+                    samples.status(res.statusCode());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                if (t0 >= measureFrom) samples.failure();
+            }
+            if (cfg.thinkMillis() > 0) {
+                try {
+                    Thread.sleep(cfg.thinkMillis() / 2 + rnd.nextInt(cfg.thinkMillis()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static String pick(Random rnd) {
+        int r = rnd.nextInt(100);
+        for (int i = 0; i < OPS.length; i++) {
+            r -= WEIGHTS[i];
+            if (r < 0) return OPS[i];
+        }
+        return OPS[0];
+    }
+
+    private HttpRequest request(String op, Random rnd, List<Long> stations, int client, int n) {
+        HttpRequest.Builder b;
+        switch (op) {
+            case "patch" -> {
+                long id = taskIds.get(rnd.nextInt(taskIds.size()));
+                String body = "{\"zusätzlicheInfos\":\"Last " + client + "-" + n + "\"}";
+                b = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tasks/" + id))
+                        .header("Content-Type", "application/json; charset=UTF-8")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+            }
+            case "sort" -> {
+                long station = stations.get(rnd.nextInt(stations.size()));
+                List<Long> column = columns.get(station);
+                int from = column.size() <= SORT_WINDOW ? 0 : rnd.nextInt(column.size() - SORT_WINDOW);
+                List<Long> window = new ArrayList<>(column.subList(from, Math.min(column.size(), from + SORT_WINDOW)));
+                Collections.shuffle(window, rnd);
+                String body = "{\"arbeitsstationId\":" + station + ",\"orderedIds\":" + window + "}";
+                b = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tasks/sort"))
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(body));
+            }
+            case "utilization" -> {
+                LocalDate from = LocalDate.now();
+                b = HttpRequest.newBuilder(URI.create(baseUrl + "/api/dashboard/utilization?from=" + from
+                        + "&to=" + from.plusDays(27))).GET();
+            }
+            case "backlog" -> b = HttpRequest.newBuilder(URI.create(baseUrl + "/api/dashboard/backlog")).GET();
+            default -> b = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tasks")).GET();
+        }
+        return b.timeout(REQUEST_TIMEOUT).header("Accept", "application/json").build();
+    }
+
+    /** SSE-Stream eines Tablets: zählt Events (ohne ping/Heartbeat) bis zum Ende der Messung. */
+    private void stream(int client, long end, LoadReport report, long[] perClient) {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tasks/stream"))
+                .header("Accept", "text/event-stream").GET().build();
+        AtomicLong events = new AtomicLong();
+        try {
+            HttpResponse<InputStream> res = http.send(req, HttpResponse.BodyHandlers.ofInputStream());
+            if (res.statusCode() != 200) {
+                report.sseFailures.incrementAndGet();
+                return;
+            }
+            report.sseConnected.incrementAndGet();
+            Thread closer = new Thread(() -> {
+                try {
+                    Thread.sleep(Math.max(0, (end - System.nanoTime()) / 1_000_000));
+                    res.body().close();
+                } catch (Exception ignored) {
+                    // Stream ohnehin zu
+                }
+            });
+            closer.setDaemon(true);
+            closer.start();
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(res.body(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null && System.nanoTime() < end) {
+                    if (line.startsWith("event:") && !line.startsWith("event:ping")) {
+                        events.incrementAndGet();
+                        report.sseEvents.incrementAndGet();
+                    }
+                }
+            }
+        } catch (Exception e) {
+            if (System.nanoTime() < end) report.sseFailures.incrementAndGet();
+        } finally {
+            perClient[client] = events.get();
+        }
+    }
+}
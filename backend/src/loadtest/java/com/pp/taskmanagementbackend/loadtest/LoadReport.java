@@ -0,0 +1,142 @@
+package com.pp.taskmanagementbackend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Messwerte je Operation (Latenzen in ns, HTTP-Status) und SSE-Zähler; Auswertung als Tabelle und
+ * JSON (p50/p95/p99 nach Nearest-Rank, Durchsatz = Requests / Messdauer).
+ */
+final class LoadReport {
+
+    /** Latenzen einer Operation; wächst bei Bedarf, synchronisiert (Aufrufe sind ms-lang). */
+    static final class Samples {
+        private long[] values = new long[1024];
+        private int size;
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder errors = new LongAdder();
+
+        synchronized void add(long nanos) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = nanos;
+        }
+
+        void status(int code) {
+            statuses.computeIfAbsent(code, k -> new LongAdder()).increment();
+            if (code >= 400) errors.increment();
+        }
+
+        /** Netzwerkfehler/Timeout (kein HTTP-Status). */
+        void failure() {
+            statuses.computeIfAbsent(0, k -> new LongAdder()).increment();
+            errors.increment();
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    private final Map<String, Samples> ops = new LinkedHashMap<>();
+    final AtomicLong sseConnected = new AtomicLong();
+    final AtomicLong sseEvents = new AtomicLong();
+    final AtomicLong sseFailures = new AtomicLong();
+    private long[] ssePerClient = new long[0];
+    private double measuredSeconds;
+
+    LoadReport(String... opNames) {
+        for (String op : opNames) ops.put(op, new Samples());
+    }
+
+    Samples op(String name) {
+        return ops.get(name);
+    }
+
+    void finish(double measuredSeconds, long[] ssePerClient) {
+        this.measuredSeconds = measuredSeconds;
+        this.ssePerClient = ssePerClient.clone();
+    }
+
+    Map<String, Object> toMap(Map<String, Object> config) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("config", config);
+        out.put("measuredSeconds", round(measuredSeconds));
+        Map<String, Object> opMap = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<String, Samples> e : ops.entrySet()) {
+            long[] s = e.getValue().sorted();
+            total += s.length;
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("count", s.length);
+            m.put("errors", e.getValue().errors.sum());
+            Map<String, Long> st = new TreeMap<>();
+            e.getValue().statuses.forEach((k, v) -> st.put(k == 0 ? "io" : String.valueOf(k), v.sum()));
+            m.put("statuses", st);
+            m.put("throughputPerSec", round(s.length / Math.max(0.001, measuredSeconds)));
+            m.put("p50Ms", ms(percentile(s, 50)));
+            m.put("p95Ms", ms(percentile(s, 95)));
+            m.put("p99Ms", ms(percentile(s, 99)));
+            m.put("maxMs", ms(s.length > 0 ? s[s.length - 1] : 0));
+            opMap.put(e.getKey(), m);
+        }
+        out.put("operations", opMap);
+        out.put("totalThroughputPerSec", round(total / Math.max(0.001, measuredSeconds)));
+        Map<String, Object> sse = new LinkedHashMap<>();
+        sse.put("connected", sseConnected.get());
+        sse.put("failures", sseFailures.get());
+        sse.put("events", sseEvents.get());
+        sse.put("eventsPerClientMin", Arrays.stream(ssePerClient).min().orElse(0));
+        sse.put("eventsPerClientMax", Arrays.stream(ssePerClient).max().orElse(0));
+        out.put("sse", sse);
+        return out;
+    }
+
+    @SuppressWarnings("unchecked")
+    void print(PrintStream out, Map<String, Object> config) {
+        Map<String, Object> m = toMap(config);
+        out.printf("%n%-14s %8s %7s %9s %9s %9s %9s %9s%n",
+                "Operation", "Anzahl", "Fehler", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, Object> e : ((Map<String, Object>) m.get("operations")).entrySet()) {
+            Map<String, Object> o = (Map<String, Object>) e.getValue();
+            out.printf("%-14s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f   %s%n", e.getKey(),
+                    ((Number) o.get("count")).longValue(), ((Number) o.get("errors")).longValue(),
+                    (Double) o.get("throughputPerSec"), (Double) o.get("p50Ms"), (Double) o.get("p95Ms"),
+                    (Double) o.get("p99Ms"), (Double) o.get("maxMs"), o.get("statuses"));
+        }
+        out.printf("Gesamt: %.1f req/s über %.0f s%n", (Double) m.get("totalThroughputPerSec"), measuredSeconds);
+        out.printf("SSE: %s%n", m.get("sse"));
+    }
+
+    void writeJson(Path file, Map<String, Object> config) throws IOException {
+        Files.createDirectories(file.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), toMap(config));
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    private static double ms(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 10.0) / 10.0;
+    }
+}
@@ -0,0 +1,114 @@
+package com.pp.taskmanagementbackend.loadtest;
+
+import com.pp.PpApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lasttest auf einer Maschine, ohne Netz: Embedded-Postgres (Binaries aus dem Maven-Repo),
+ * synthetische Daten über das echte Flyway-Schema, Backend im selben JVM auf einem freien Port,
+ * dann {@link LoadDriver}. Mit -Dload.baseUrl=http://… wird stattdessen ein laufendes Backend
+ * getestet (Daten liegen dann schon dort).
+ *
+ * Start: mvn -Ploadtest verify (Parameter siehe README / pom.xml, Profil "loadtest").
+ */
+public final class LoadTest {
+
+    record Config(int tasks, int stations, int clients, int durationSeconds, int warmupSeconds,
+                  int thinkMillis, long seed, String baseUrl, Path resultDir) {
+
+        static Config fromSystemProperties() {
+            return new Config(
+                    Integer.getInteger("load.tasks", 50_000),
+                    Integer.getInteger("load.stations", 12),
+                    Integer.getInteger("load.clients", 30),
+                    Integer.getInteger("load.durationSec", 60),
+                    Integer.getInteger("load.warmupSec", 10),
+                    Integer.getInteger("load.thinkMs", 250),
+                    Long.getLong("load.seed", 42L),
+                    System.getProperty("load.baseUrl", "").trim(),
+                    Path.of(System.getProperty("load.resultDir", "target/loadtest-results")));
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("tasks", baseUrl.isEmpty() ? tasks : "extern");
+            m.put("stations", baseUrl.isEmpty() ? stations : "extern");
+            m.put("clients", clients);
+            m.put("durationSeconds", durationSeconds);
+            m.put("warmupSeconds", warmupSeconds);
+            m.put("thinkMillis", thinkMillis);
+            m.put("seed", seed);
+            m.put("target", baseUrl.isEmpty() ? "embedded" : baseUrl);
+            m.put("java", Runtime.version().toString());
+            m.put("cpus", Runtime.getRuntime().availableProcessors());
+            return m;
+        }
+    }
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config cfg = Config.fromSystemProperties();
+        EmbeddedPostgres pg = null;
+        ConfigurableApplicationContext app = null;
+        try {
+            String baseUrl = cfg.baseUrl();
+            if (baseUrl.isEmpty()) {
+                pg = EmbeddedPostgres.builder().start();
+                String jdbcUrl = pg.getJdbcUrl("postgres", "postgres");
+                long t0 = System.nanoTime();
+                new LoadDataGenerator(jdbcUrl, "postgres", "postgres", cfg.seed()).generate(cfg.tasks(), cfg.stations());
+                System.out.printf("[loadtest] %d Tasks auf %d Stationen erzeugt (%.1f s)%n",
+                        cfg.tasks(), cfg.stations(), (System.nanoTime() - t0) / 1e9);
+                app = startBackend(jdbcUrl);
+                baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            }
+            System.out.printf("[loadtest] %d Clients, %d s Messung nach %d s Aufwärmen gegen %s%n",
+                    cfg.clients(), cfg.durationSeconds(), cfg.warmupSeconds(), baseUrl);
+
+            LoadReport report = new LoadDriver(baseUrl, cfg).run();
+            report.print(System.out, cfg.toMap());
+            Path file = cfg.resultDir().resolve("loadtest-"
+                    + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+            report.writeJson(file, cfg.toMap());
+            System.out.println("[loadtest] Ergebnis: " + file.toAbsolutePath());
+        } finally {
+            if (app != null) app.close();
+            if (pg != null) pg.close();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Backend wie im Betrieb (ohne dev-Profil: kein SQL-Logging), nur Datenquelle, Port und
+     * Dateiablagen umgebogen. Flyway läuft erneut, findet aber nichts mehr zu tun.
+     */
+    private static ConfigurableApplicationContext startBackend(String jdbcUrl) throws Exception {
+        Path files = Files.createTempDirectory("loadtest-files");
+        Files.createDirectories(files.resolve("attachments"));
+        SpringApplication spring = new SpringApplication(PpApplication.class);
+        spring.setBannerMode(Banner.Mode.OFF);
+        return spring.run(
+                "--spring.profiles.active=loadtest",
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.jpa.show-sql=false",
+                "--server.port=0",
+                "--folderpicker.base-path=" + files,
+                "--attachments.base-path=" + files.resolve("attachments"),
+                "--logging.level.root=warn",
+                "--logging.level.com.pp.taskmanagementbackend=warn");
+    }
+}
@@ -5,5 +5,7 @@ public class AttachmentDto {
     public String filename;
     public String mime;
     public long size;
+    public long storedSize;
     public String downloadUrl;
+    public String thumbnailUrl; // null, wenn es für den Typ keine Vorschau gibt
 }
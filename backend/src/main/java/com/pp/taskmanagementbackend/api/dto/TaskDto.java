@@ -1,8 +1,10 @@
 package com.pp.taskmanagementbackend.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.pp.taskmanagementbackend.model.TaskStatus;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 public class TaskDto {
     private Long id;
@@ -26,6 +28,10 @@ public class TaskDto {
     private List<String> additionalWorks;
     private String dueSeverityVisual;
     private String dueSeverityPlanning;   
+    private Integer version;              // optimistische Sperre / Delta-Frames
+    // nur PATCH: Feldwerte, von denen der Client ausging (Drei-Wege-Merge bei veralteter Version)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Map<String, Object> base;
     
     
 
@@ -58,6 +64,12 @@ public class TaskDto {
     public String getDueSeverityVisual() {return dueSeverityVisual;}
     public void setDueSeverityVisual(String dueSeverityVisual) { this.dueSeverityVisual = dueSeverityVisual;}
 
+    public Integer getVersion() { return version; }
+    public void setVersion(Integer version) { this.version = version; }
+
+    public Map<String, Object> getBase() { return base; }
+    public void setBase(Map<String, Object> base) { this.base = base; }
+
     public String getDueSeverityPlanning() {return dueSeverityPlanning;}
     public void setDueSeverityPlanning(String dueSeverityPlanning) {this.dueSeverityPlanning = dueSeverityPlanning;}
     
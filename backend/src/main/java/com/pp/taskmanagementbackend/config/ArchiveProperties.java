@@ -0,0 +1,31 @@
+package com.pp.taskmanagementbackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "archive")
+public class ArchiveProperties {
+
+  /** Archiv-Job an/aus (YAML: archive.enabled). */
+  private boolean enabled = true;
+
+  /** Tage, die ein Task final sein muss, bevor er archiviert wird (YAML: archive.retention-days). */
+  private int retentionDays = 90;
+
+  /** Max. Tasks pro Transaktion (YAML: archive.batch-size). */
+  private int batchSize = 500;
+
+  /** Zeitplan des Jobs, Spring-Cron (YAML: archive.cron). */
+  private String cron = "0 30 2 * * *";
+
+  public boolean isEnabled() { return enabled; }
+  public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+  public int getRetentionDays() { return retentionDays; }
+  public void setRetentionDays(int retentionDays) { this.retentionDays = retentionDays; }
+
+  public int getBatchSize() { return batchSize; }
+  public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+  public String getCron() { return cron; }
+  public void setCron(String cron) { this.cron = cron; }
+}
@@ -0,0 +1,25 @@
+package com.pp.taskmanagementbackend.config;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * JdbcTemplate, das jedes erzeugte Statement im SqlStatementCounter mitzählt (z. B. pg_notify des
+ * Postgres-Event-Bus, Upserts des Ordner-Index). applyStatementSettings läuft für jedes Statement
+ * genau einmal – egal ob query, update, batchUpdate oder queryForStream. Ein Batch zählt als eins.
+ */
+public class CountingJdbcTemplate extends JdbcTemplate {
+
+    public CountingJdbcTemplate(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    protected void applyStatementSettings(Statement stmt) throws SQLException {
+        SqlStatementCounter.countJdbc();
+        super.applyStatementSettings(stmt);
+    }
+}
@@ -0,0 +1,39 @@
+package com.pp.taskmanagementbackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.InetAddress;
+import java.util.UUID;
+
+@ConfigurationProperties(prefix = "events")
+public class EventBusProperties {
+
+  /** local = nur diese Instanz (In-JVM), postgres = LISTEN/NOTIFY zwischen Instanzen (YAML: events.bus). */
+  private String bus = "local";
+
+  /** NOTIFY-Kanal, muss ein einfacher SQL-Bezeichner sein (YAML: events.channel). */
+  private String channel = "task_events";
+
+  /** Kennung dieser Instanz; leer = Hostname + Zufall (YAML: events.instance-id). */
+  private String instanceId;
+
+  public String getBus() { return bus; }
+  public void setBus(String bus) { this.bus = bus; }
+
+  public String getChannel() { return channel; }
+  public void setChannel(String channel) { this.channel = channel; }
+
+  public synchronized String getInstanceId() {
+    if (instanceId == null || instanceId.isBlank()) {
+      String host;
+      try {
+        host = InetAddress.getLocalHost().getHostName();
+      } catch (Exception e) {
+        host = "node";
+      }
+      instanceId = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+    return instanceId;
+  }
+  public void setInstanceId(String instanceId) { this.instanceId = instanceId; }
+}
@@ -0,0 +1,85 @@
+package com.pp.taskmanagementbackend.config;
+
+import com.pp.taskmanagementbackend.controller.TaskSocketHandler;
+import com.pp.taskmanagementbackend.events.TaskEventPublisher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.JdbcProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Eigene Metriken neben dem, was Actuator von selbst liefert (http.server.requests, Hikari,
+ * Hibernate-Statistiken, JVM). Abruf über /actuator/prometheus (YAML: management.*).
+ * - SQL-Statements je Request (SqlStatementCounter + SqlStatementMetricsFilter, Budget: sql-budget.*),
+ *   Hibernate über den StatementInspector, JdbcTemplate/NamedParameterJdbcTemplate über CountingJdbcTemplate
+ * - SSE: verbundene Streams, laufende Sends, entfernte Clients; WebSocket-Sessions (falls aktiv)
+ * Timer für applyOrder und Attachment-Bytes registrieren die Services selbst.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspector(SqlStatementCounter counter) {
+        return props -> props.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+    }
+
+    /** Ersetzt das JdbcTemplate der Auto-Konfiguration (gleiche spring.jdbc.template.*-Einstellungen). */
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource, JdbcProperties properties) {
+        JdbcTemplate jdbc = new CountingJdbcTemplate(dataSource);
+        JdbcProperties.Template template = properties.getTemplate();
+        jdbc.setFetchSize(template.getFetchSize());
+        jdbc.setMaxRows(template.getMaxRows());
+        if (template.getQueryTimeout() != null) {
+            jdbc.setQueryTimeout((int) template.getQueryTimeout().getSeconds());
+        }
+        return jdbc;
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(MeterRegistry registry,
+                                                                                      SqlBudgetProperties budget) {
+        FilterRegistrationBean<SqlStatementMetricsFilter> reg =
+                new FilterRegistrationBean<>(new SqlStatementMetricsFilter(registry, budget));
+        reg.addUrlPatterns("/api/*");
+        reg.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return reg;
+    }
+
+    @Bean
+    public MeterBinder taskStreamMetrics(TaskEventPublisher publisher, ObjectProvider<TaskSocketHandler> sockets) {
+        return registry -> {
+            Gauge.builder("tasks.sse.subscribers", publisher, TaskEventPublisher::getSubscriberCount)
+                    .description("Verbundene SSE-Streams")
+                    .register(registry);
+            Gauge.builder("tasks.sse.pending.sends", publisher, TaskEventPublisher::getPendingSendCount)
+                    .description("SSE-Streams mit laufendem Send")
+                    .register(registry);
+            FunctionCounter.builder("tasks.sse.evicted", publisher, TaskEventPublisher::getEvictedCount)
+                    .description("Entfernte tote/hängende SSE-Clients")
+                    .register(registry);
+            TaskSocketHandler handler = sockets.getIfAvailable();
+            if (handler != null) {
+                Gauge.builder("tasks.ws.sessions", handler, TaskSocketHandler::getSessionCount)
+                        .description("Verbundene WebSocket-Sessions")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package com.pp.taskmanagementbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Aktiviert @Scheduled-Jobs (Archivierung etc.). */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,49 @@
+package com.pp.taskmanagementbackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "sql-budget")
+public class SqlBudgetProperties {
+
+  /** Budget-Prüfung an/aus; gezählt (Metrik) wird immer (YAML: sql-budget.enabled). */
+  private boolean enabled = true;
+
+  /** Erlaubte Statements je Request ohne eigenen Eintrag (YAML: sql-budget.default-budget). */
+  private int defaultBudget = 25;
+
+  /**
+   * Budgets je Endpoint, Schlüssel "METHODE Mapping-Pattern" in eckigen Klammern,
+   * z. B. "[GET /api/tasks]": 3 (YAML: sql-budget.budgets).
+   */
+  private Map<String, Integer> budgets = new LinkedHashMap<>();
+
+  /** Überschreitung als Fehler statt Warnung – für Tests/CI gedacht (YAML: sql-budget.fail). */
+  private boolean fail = false;
+
+  /** Anzahl als Response-Header X-SQL-Statements (YAML: sql-budget.response-header, nur dev). */
+  private boolean responseHeader = false;
+
+  public boolean isEnabled() { return enabled; }
+  public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+  public int getDefaultBudget() { return defaultBudget; }
+  public void setDefaultBudget(int defaultBudget) { this.defaultBudget = defaultBudget; }
+
+  public Map<String, Integer> getBudgets() { return budgets; }
+  public void setBudgets(Map<String, Integer> budgets) { this.budgets = budgets; }
+
+  public boolean isFail() { return fail; }
+  public void setFail(boolean fail) { this.fail = fail; }
+
+  public boolean isResponseHeader() { return responseHeader; }
+  public void setResponseHeader(boolean responseHeader) { this.responseHeader = responseHeader; }
+
+  /** Budget für "METHODE pattern"; ohne Eintrag das Standardbudget. */
+  public int budgetFor(String method, String pattern) {
+    Integer b = budgets.get(method + " " + pattern);
+    return b != null ? b : defaultBudget;
+  }
+}
@@ -0,0 +1,44 @@
+package com.pp.taskmanagementbackend.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Zählt die von Hibernate vorbereiteten SQL-Statements je Thread (= je Request, siehe
+ * SqlStatementMetricsFilter), dazu die des JdbcTemplate (CountingJdbcTemplate). Außerhalb eines Zählbereichs (Scheduler, Hintergrund-Threads)
+ * wird nichts gezählt. Das SQL selbst bleibt unverändert.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] c = COUNT.get();
+        if (c != null) c[0]++;
+        return sql;
+    }
+
+    /** Statement, das an Hibernate vorbei läuft (CountingJdbcTemplate), im aktuellen Zählbereich mitzählen. */
+    static void countJdbc() {
+        int[] c = COUNT.get();
+        if (c != null) c[0]++;
+    }
+
+    /** Zählbereich für den aktuellen Thread öffnen (setzt auf 0). */
+    public static void begin() {
+        COUNT.set(new int[1]);
+    }
+
+    /** Bisherige Anzahl im aktuellen Zählbereich, -1 ohne Zählbereich. */
+    public static int current() {
+        int[] c = COUNT.get();
+        return c != null ? c[0] : -1;
+    }
+
+    /** Zählbereich schließen; liefert die Anzahl (-1 ohne Zählbereich). */
+    public static int end() {
+        int n = current();
+        COUNT.remove();
+        return n;
+    }
+}
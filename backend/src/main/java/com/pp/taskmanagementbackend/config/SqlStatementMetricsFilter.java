@@ -0,0 +1,188 @@
+package com.pp.taskmanagementbackend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Anzahl SQL-Statements je Request als Metrik http.server.requests.sql (Tags method + uri wie bei
+ * http.server.requests, uri = Mapping-Pattern, nicht die konkrete ID). Macht N+1-Muster sichtbar,
+ * ohne show-sql/TRACE-Logging.
+ *
+ * Budget (YAML: sql-budget.*): über dem Budget des Endpoints → Warnung im Log (je Endpoint höchstens
+ * einmal pro Minute) und Zähler http.server.requests.sql.over.budget; mit sql-budget.fail=true
+ * stattdessen IllegalStateException (Tests/CI). Dafür wird der Body gepuffert und bei Überschreitung
+ * verworfen, der Client bekommt also 500 statt der eigentlichen Antwort. Nicht gepuffert werden
+ * Streams und Binärantworten ({@link #UNBUFFERED}: SSE, WebSocket, Attachment-Download/Thumbnail –
+ * Heap, Content-Length/Sendfile); dort wird die Überschreitung nur noch geworfen und geloggt.
+ * Die endgültige Anzahl steht danach im Request-Attribut {@link #COUNT_ATTRIBUTE} (SqlBudgetIT).
+ * Optional (dev) Header X-SQL-Statements = Stand bei Beginn des Response-Bodys und X-SQL-Budget =
+ * Budget des Endpoints; scripts/sql-budget-check.sh vergleicht beides für alle GET-Endpoints.
+ */
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementMetricsFilter.class);
+
+    public static final String HEADER = "X-SQL-Statements";
+    public static final String BUDGET_HEADER = "X-SQL-Budget";
+    /** Request-Attribut mit der Anzahl Statements des ganzen Requests (Integer). */
+    public static final String COUNT_ATTRIBUTE = SqlStatementMetricsFilter.class.getName() + ".count";
+
+    /** Buckets für die Prometheus-Histogramme (Statements je Request). */
+    private static final double[] BUCKETS = {1, 2, 5, 10, 20, 50, 100, 200, 500};
+    private static final long WARN_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    /** GET/HEAD-Pfade, deren Antwort im fail-Modus nicht gepuffert wird (Streams, Dateien). */
+    static final Pattern UNBUFFERED = Pattern.compile(
+            "/api/tasks/(stream|ws)|/api/tasks/[^/]+/attachments/[^/]+(/thumb)?");
+
+    private final MeterRegistry registry;
+    private final SqlBudgetProperties budget;
+    /** "METHODE uri" → letzte Warnung (nanoTime). */
+    private final ConcurrentHashMap<String, Long> lastWarned = new ConcurrentHashMap<>();
+
+    public SqlStatementMetricsFilter(MeterRegistry registry, SqlBudgetProperties budget) {
+        this.registry = registry;
+        this.budget = budget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.begin();
+        // fail-Modus: Body puffern, damit eine Überschreitung noch als Fehler beim Client ankommt
+        ContentCachingResponseWrapper buffered = budget.isEnabled() && budget.isFail() && !isUnbuffered(request)
+                ? new ContentCachingResponseWrapper(response) : null;
+        HttpServletResponse inner = buffered != null ? buffered : response;
+        HttpServletResponse res = budget.isResponseHeader() ? new CountHeaderResponse(request, inner, budget) : inner;
+        int statements;
+        String uri;
+        try {
+            chain.doFilter(request, res);
+            if (res instanceof CountHeaderResponse c) c.stamp(); // Antworten ohne Body
+        } finally {
+            statements = Math.max(0, SqlStatementCounter.end());
+            request.setAttribute(COUNT_ATTRIBUTE, statements);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("http.server.requests.sql")
+                    .description("SQL-Statements je HTTP-Request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .serviceLevelObjectives(BUCKETS)
+                    .register(registry)
+                    .record(statements);
+        }
+        if (budget.isEnabled()) {
+            checkBudget(request.getMethod(), uri, statements); // wirft im fail-Modus, Puffer bleibt verworfen
+        }
+        if (buffered != null) buffered.copyBodyToResponse();
+    }
+
+    /** Nach Pfad, nicht nach Accept-Header – ein SSE-Client ohne Accept würde sonst gepuffert. */
+    private static boolean isUnbuffered(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) return false;
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return UNBUFFERED.matcher(path).matches();
+    }
+
+    private void checkBudget(String method, String uri, int statements) {
+        int limit = budget.budgetFor(method, uri);
+        if (statements <= limit) return;
+
+        Counter.builder("http.server.requests.sql.over.budget")
+                .description("Requests über dem SQL-Budget ihres Endpoints")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry)
+                .increment();
+        String msg = "SQL-Budget überschritten: " + method + " " + uri + " → " + statements
+                + " Statements (Budget " + limit + ")";
+        if (budget.isFail()) {
+            throw new IllegalStateException(msg);
+        }
+        String key = method + " " + uri;
+        long now = System.nanoTime();
+        Long last = lastWarned.get(key);
+        if (last == null || now - last >= WARN_INTERVAL_NANOS) {
+            lastWarned.put(key, now);
+            log.warn("[SQL] {}", msg);
+        }
+    }
+
+    /** Setzt X-SQL-Statements/X-SQL-Budget, solange die Antwort noch nicht committed ist. */
+    private static final class CountHeaderResponse extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+        private final SqlBudgetProperties budget;
+
+        CountHeaderResponse(HttpServletRequest request, HttpServletResponse response, SqlBudgetProperties budget) {
+            super(response);
+            this.request = request;
+            this.budget = budget;
+        }
+
+        void stamp() {
+            if (isCommitted()) return;
+            setHeader(HEADER, String.valueOf(Math.max(0, SqlStatementCounter.current())));
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                setHeader(BUDGET_HEADER, String.valueOf(budget.budgetFor(request.getMethod(), pattern.toString())));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            stamp();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            stamp();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            stamp();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            stamp();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            stamp();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            stamp();
+            super.sendRedirect(location);
+        }
+    }
+}
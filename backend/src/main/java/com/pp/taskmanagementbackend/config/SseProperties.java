@@ -0,0 +1,25 @@
+package com.pp.taskmanagementbackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "sse")
+public class SseProperties {
+
+  /** Abstand der Heartbeat-Kommentare an alle Streams (YAML: sse.heartbeat-interval-ms). */
+  private long heartbeatIntervalMs = 25_000;
+
+  /** Hängt ein Schreibvorgang länger, fliegt der Client raus (YAML: sse.send-timeout-ms). */
+  private long sendTimeoutMs = 30_000;
+
+  /** Obergrenze gleichzeitiger Streams; darüber 503 (YAML: sse.max-subscribers). */
+  private int maxSubscribers = 500;
+
+  public long getHeartbeatIntervalMs() { return heartbeatIntervalMs; }
+  public void setHeartbeatIntervalMs(long heartbeatIntervalMs) { this.heartbeatIntervalMs = heartbeatIntervalMs; }
+
+  public long getSendTimeoutMs() { return sendTimeoutMs; }
+  public void setSendTimeoutMs(long sendTimeoutMs) { this.sendTimeoutMs = sendTimeoutMs; }
+
+  public int getMaxSubscribers() { return maxSubscribers; }
+  public void setMaxSubscribers(int maxSubscribers) { this.maxSubscribers = maxSubscribers; }
+}
@@ -3,6 +3,9 @@ package com.pp.taskmanagementbackend.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @Component
 @ConfigurationProperties // ohne prefix: liest Top-Level-Keys (folderpicker.*, attachments.*)
@@ -23,8 +26,102 @@ public class StorageProperties {
      */
     private String basePath;
 
+    /**
+     * YAML: folderpicker.cache-ttl
+     * Wie lange eine Unterordner-Liste aus dem Speicher kommt (CIFS meldet fremde Änderungen nicht).
+     */
+    private Duration cacheTtl = Duration.ofMinutes(5);
+
+    /** YAML: folderpicker.cache-max-entries */
+    private int cacheMaxEntries = 5000;
+
+    /** YAML: folderpicker.watch – WatchService-Invalidierung, wo das Dateisystem Ereignisse liefert */
+    private boolean watch = true;
+
+    /** YAML: folderpicker.prefetch – Unterordner eine Ebene tiefer im Hintergrund vorladen */
+    private boolean prefetch = true;
+
+    /** YAML: folderpicker.index-enabled – Ordner-Index für /api/fs/search */
+    private boolean indexEnabled = true;
+
+    /** YAML: folderpicker.index-max-depth – tiefer wird nicht gecrawlt */
+    private int indexMaxDepth = 8;
+
+    /** YAML: folderpicker.index-interval-ms – Abstand der inkrementellen Rescans */
+    private long indexIntervalMs = 900_000;
+
+    /** YAML: folderpicker.validate-ttl – wie lange ein Ergebnis der Dateipfad-Prüfung gilt */
+    private Duration validateTtl = Duration.ofSeconds(30);
+
+    /** YAML: folderpicker.validate-threads – parallele Datei-Abfragen gegen das Share */
+    private int validateThreads = 4;
+
     public String getBasePath() { return basePath; }
     public void setBasePath(String basePath) { this.basePath = basePath; }
+
+    public Duration getValidateTtl() { return validateTtl; }
+    public void setValidateTtl(Duration validateTtl) { this.validateTtl = validateTtl; }
+    public int getValidateThreads() { return validateThreads; }
+    public void setValidateThreads(int validateThreads) { this.validateThreads = validateThreads; }
+
+    public Duration getCacheTtl() { return cacheTtl; }
+    public void setCacheTtl(Duration cacheTtl) { this.cacheTtl = cacheTtl; }
+    public int getCacheMaxEntries() { return cacheMaxEntries; }
+    public void setCacheMaxEntries(int cacheMaxEntries) { this.cacheMaxEntries = cacheMaxEntries; }
+    public boolean isWatch() { return watch; }
+    public void setWatch(boolean watch) { this.watch = watch; }
+    public boolean isPrefetch() { return prefetch; }
+    public void setPrefetch(boolean prefetch) { this.prefetch = prefetch; }
+    public boolean isIndexEnabled() { return indexEnabled; }
+    public void setIndexEnabled(boolean indexEnabled) { this.indexEnabled = indexEnabled; }
+    public int getIndexMaxDepth() { return indexMaxDepth; }
+    public void setIndexMaxDepth(int indexMaxDepth) { this.indexMaxDepth = indexMaxDepth; }
+    public long getIndexIntervalMs() { return indexIntervalMs; }
+    public void setIndexIntervalMs(long indexIntervalMs) { this.indexIntervalMs = indexIntervalMs; }
+  }
+
+  public static class Preview {
+    /** YAML: attachments.preview.enabled */
+    private boolean enabled = true;
+    /** YAML: attachments.preview.max-dimension – längste Kante des Thumbnails in Pixel */
+    private int maxDimension = 320;
+    /** YAML: attachments.preview.threads – Worker für die Vorschau-Erzeugung (Pi: 1) */
+    private int threads = 1;
+    /** YAML: attachments.preview.queue-capacity – darüber wird verworfen und beim ersten Abruf nachgeholt */
+    private int queueCapacity = 100;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public int getMaxDimension() { return maxDimension; }
+    public void setMaxDimension(int maxDimension) { this.maxDimension = maxDimension; }
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = threads; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+  }
+
+  public static class Cleanup {
+    /** YAML: attachments.cleanup.poll-interval-ms – Abstand der Outbox-Abfrage (zusätzlich zum Anstoß nach Commit) */
+    private long pollIntervalMs = 30_000;
+    /** YAML: attachments.cleanup.max-attempts – danach wird der Eintrag verworfen (Sweeper räumt später auf) */
+    private int maxAttempts = 10;
+    /** YAML: attachments.cleanup.sweep-enabled */
+    private boolean sweepEnabled = true;
+    /** YAML: attachments.cleanup.sweep-cron – Abgleich Verzeichnis ↔ storage_key */
+    private String sweepCron = "0 15 3 * * *";
+    /** YAML: attachments.cleanup.orphan-grace – jüngere Dateien gelten nie als verwaist (laufende Uploads) */
+    private Duration orphanGrace = Duration.ofHours(6);
+
+    public long getPollIntervalMs() { return pollIntervalMs; }
+    public void setPollIntervalMs(long pollIntervalMs) { this.pollIntervalMs = pollIntervalMs; }
+    public int getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+    public boolean isSweepEnabled() { return sweepEnabled; }
+    public void setSweepEnabled(boolean sweepEnabled) { this.sweepEnabled = sweepEnabled; }
+    public String getSweepCron() { return sweepCron; }
+    public void setSweepCron(String sweepCron) { this.sweepCron = sweepCron; }
+    public Duration getOrphanGrace() { return orphanGrace; }
+    public void setOrphanGrace(Duration orphanGrace) { this.orphanGrace = orphanGrace; }
   }
 
   public static class Attachments {
@@ -33,7 +130,54 @@ public class StorageProperties {
      */
     private String basePath;
 
+    /**
+     * YAML: attachments.content-addressed
+     * true = Blobs unter ihrem SHA-256 ablegen (gleiche Datei nur einmal auf Platte),
+     * false = wie bisher je Upload ein zufälliger Key.
+     */
+    private boolean contentAddressed = true;
+
+    /**
+     * YAML: attachments.max-upload-size
+     * Obergrenze je Datei für den Streaming-Upload (Multipart begrenzt zusätzlich spring.servlet.multipart.*).
+     */
+    private DataSize maxUploadSize = DataSize.ofMegabytes(50);
+
+    /**
+     * YAML: attachments.sharded
+     * true = Blobs aufgefächert ablegen (ab/cd/abcdef…), alte flache Keys werden weiter gelesen.
+     * Bestand umziehen: POST /api/attachments/maintenance/migrate-layout
+     */
+    private boolean sharded = true;
+
+    /**
+     * YAML: attachments.compression
+     * none | gzip – Blobs komprimiert ablegen (bereits komprimierte MIME-Typen werden übersprungen).
+     */
+    private String compression = "none";
+
+    @NestedConfigurationProperty
+    private final Preview preview = new Preview();
+
+    @NestedConfigurationProperty
+    private final Cleanup cleanup = new Cleanup();
+
     public String getBasePath() { return basePath; }
     public void setBasePath(String basePath) { this.basePath = basePath; }
+
+    public boolean isContentAddressed() { return contentAddressed; }
+    public void setContentAddressed(boolean contentAddressed) { this.contentAddressed = contentAddressed; }
+
+    public DataSize getMaxUploadSize() { return maxUploadSize; }
+    public void setMaxUploadSize(DataSize maxUploadSize) { this.maxUploadSize = maxUploadSize; }
+
+    public boolean isSharded() { return sharded; }
+    public void setSharded(boolean sharded) { this.sharded = sharded; }
+
+    public Preview getPreview() { return preview; }
+    public Cleanup getCleanup() { return cleanup; }
+
+    public String getCompression() { return compression; }
+    public void setCompression(String compression) { this.compression = compression; }
   }
 }
@@ -0,0 +1,86 @@
+package com.pp.taskmanagementbackend.config;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Optionaler Virtual-Thread-Betrieb (spring.threads.virtual.enabled=true, Java 21+).
+ *
+ * Boot 3.1 kennt die Property selbst noch nicht; bis zum Upgrade auf Boot 3.2 (dort übernimmt
+ * Spring das nativ, diese Klasse kann dann entfallen) wird hier von Hand umgestellt:
+ * - Tomcat-Request-Threads → ein Virtual Thread je Request
+ * - MVC-Async (Callable/StreamingResponseBody) → Virtual Threads
+ * - SSE-Versand (TaskEventPublisher) → je Empfänger ein Virtual Thread, ein langsames Tablet
+ *   bremst die übrigen nicht mehr aus
+ * Der Code wird weiter für Java 17 gebaut; die Virtual-Thread-API wird per Reflection geholt.
+ * Auf Java 17 (oder bei ausgeschalteter Property) bleibt alles wie bisher.
+ */
+@Configuration
+public class VirtualThreadsConfig implements WebMvcConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    /** null = Plattform-Threads (Standardbetrieb). */
+    private final ExecutorService virtualExecutor;
+
+    public VirtualThreadsConfig(@Value("${spring.threads.virtual.enabled:false}") boolean requested) {
+        this.virtualExecutor = requested ? newVirtualThreadExecutor() : null;
+        if (virtualExecutor != null) {
+            log.info("[Threads] Virtual Threads aktiv (Java {})", Runtime.version().feature());
+        } else if (requested) {
+            log.warn("[Threads] spring.threads.virtual.enabled=true, aber Java {} – bleibe bei Plattform-Threads",
+                    Runtime.version().feature());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (virtualExecutor != null) virtualExecutor.shutdownNow();
+    }
+
+    public boolean isVirtual() {
+        return virtualExecutor != null;
+    }
+
+    /**
+     * Executor für den SSE-Versand: Virtual Threads, sonst synchron im aufrufenden Thread
+     * (bisheriges Verhalten – ein Plattform-Thread je Empfänger wäre auf dem Pi zu teuer).
+     */
+    public Executor sseSendExecutor() {
+        return virtualExecutor != null ? virtualExecutor : Runnable::run;
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        return handler -> {
+            if (virtualExecutor != null) handler.setExecutor(virtualExecutor);
+        };
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        if (virtualExecutor != null) configurer.setTaskExecutor(new TaskExecutorAdapter(virtualExecutor));
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        if (Runtime.version().feature() < 21) return null;
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("[Threads] Virtual-Thread-Executor nicht verfügbar: {}", e.toString());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.pp.taskmanagementbackend.config;
+
+import com.pp.taskmanagementbackend.controller.TaskSocketHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import java.util.List;
+
+/** Optionaler WebSocket-Endpoint /api/tasks/ws (YAML: websocket.enabled). SSE bleibt unverändert. */
+@Configuration
+@EnableWebSocket
+@ConditionalOnProperty(prefix = "websocket", name = "enabled", havingValue = "true")
+public class WebSocketConfig implements WebSocketConfigurer {
+
+  private final TaskSocketHandler handler;
+  private final AppCorsProperties cors;
+
+  public WebSocketConfig(TaskSocketHandler handler, AppCorsProperties cors) {
+    this.handler = handler;
+    this.cors = cors;
+  }
+
+  @Override
+  public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+    List<String> origins = cors.allowedOriginsList();
+    String[] patterns = origins.isEmpty() ? new String[] {"*"} : origins.toArray(String[]::new);
+    registry.addHandler(handler, "/api/tasks/ws").setAllowedOriginPatterns(patterns);
+  }
+}
@@ -2,6 +2,7 @@ package com.pp.taskmanagementbackend.controller;
 
 import com.pp.taskmanagementbackend.model.Assignee;
 import com.pp.taskmanagementbackend.repository.AssigneeRepository;
+import com.pp.taskmanagementbackend.service.SuggestIndexService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,9 +14,11 @@ import java.util.List;
 public class AssigneeController {
 
     private final AssigneeRepository repo;
+    private final SuggestIndexService suggestIndex;
 
-    public AssigneeController(AssigneeRepository repo) {
+    public AssigneeController(AssigneeRepository repo, SuggestIndexService suggestIndex) {
         this.repo = repo;
+        this.suggestIndex = suggestIndex;
     }
 
     @GetMapping
@@ -33,6 +36,7 @@ public class AssigneeController {
         a.setId(null);
         if (a.getActive() == null) a.setActive(Boolean.TRUE);
         var saved = repo.save(a);
+        suggestIndex.onAssigneeSaved(null, saved);
         return ResponseEntity.created(URI.create("/api/assignees/" + saved.getId())).body(saved);
     }
 
@@ -40,19 +44,23 @@ public class AssigneeController {
     public ResponseEntity<Assignee> update(@PathVariable Long id, @RequestBody Assignee a) {
         var existing = repo.findById(id).orElse(null);
         if (existing == null) return ResponseEntity.notFound().build();
+        String oldName = Boolean.TRUE.equals(existing.getActive()) ? existing.getName() : null;
 
         if (a.getName() != null && !a.getName().isBlank()) existing.setName(a.getName());
         if (a.getEmail() != null) existing.setEmail(a.getEmail());
         if (a.getActive() != null) existing.setActive(a.getActive());
 
         var saved = repo.save(existing);
+        suggestIndex.onAssigneeSaved(oldName, saved);
         return ResponseEntity.ok(saved);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        if (!repo.existsById(id)) return ResponseEntity.notFound().build();
-        repo.deleteById(id);
+        var existing = repo.findById(id).orElse(null);
+        if (existing == null) return ResponseEntity.notFound().build();
+        repo.delete(existing);
+        suggestIndex.onAssigneeDeleted(existing);
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,56 @@
+package com.pp.taskmanagementbackend.controller;
+
+import com.pp.taskmanagementbackend.api.dto.AttachmentDto;
+import com.pp.taskmanagementbackend.mapper.AttachmentMapper;
+import com.pp.taskmanagementbackend.model.Attachment;
+import com.pp.taskmanagementbackend.service.AttachmentService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Attachment-Metadaten für viele Tasks in einem Roundtrip (Board statt einer Anfrage je Karte).
+ *
+ * GET /api/attachments?taskIds=1,2,3      → { "1": [...], "2": [...], "3": [] }
+ * GET /api/attachments?station=DMU%2050   → alle Tasks der Station mit Anhängen
+ */
+@RestController
+@RequestMapping("/api/attachments")
+public class AttachmentBatchController {
+
+    private final AttachmentService service;
+
+    public AttachmentBatchController(AttachmentService service) {
+        this.service = service;
+    }
+
+    @GetMapping
+    public Map<Long, List<AttachmentDto>> batch(@RequestParam(value = "taskIds", required = false) List<Long> taskIds,
+                                                @RequestParam(value = "station", required = false) String station) {
+        boolean byIds = taskIds != null && !taskIds.isEmpty();
+        boolean byStation = station != null && !station.isBlank();
+        if (byIds == byStation) {
+            throw new IllegalArgumentException("Genau einer der Parameter 'taskIds' oder 'station' ist erforderlich");
+        }
+
+        Map<Long, List<AttachmentDto>> out = new LinkedHashMap<>();
+        List<Attachment> attachments;
+        if (byIds) {
+            Set<Long> ids = new LinkedHashSet<>(taskIds);
+            ids.forEach(id -> out.put(id, new ArrayList<>())); // angefragte Tasks ohne Anhänge → []
+            attachments = service.listByTasks(ids);
+        } else {
+            attachments = service.listByStation(station);
+        }
+        for (Attachment a : attachments) {
+            AttachmentDto dto = AttachmentMapper.toDto(a);
+            out.computeIfAbsent(a.getTask().getId(), k -> new ArrayList<>()).add(dto);
+        }
+        return out;
+    }
+}
@@ -3,30 +3,67 @@ package com.pp.taskmanagementbackend.controller;
 import com.pp.taskmanagementbackend.api.dto.AttachmentDto;
 import com.pp.taskmanagementbackend.mapper.AttachmentMapper;
 import com.pp.taskmanagementbackend.model.Attachment;
+import com.pp.taskmanagementbackend.service.AttachmentPreviewService;
 import com.pp.taskmanagementbackend.service.AttachmentService;
 import com.pp.taskmanagementbackend.service.AttachmentStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/api/tasks/{taskId}/attachments")
 public class AttachmentController {
 
+    // Tomcat-Sendfile (NIO-Connector): Attribute wie im DefaultServlet
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    /** Darunter lohnt Sendfile nicht (gleiche Schwelle wie Tomcat DefaultServlet). */
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+    /** So lange wartet ein Thumbnail-Abruf auf eine gerade laufende Erzeugung. */
+    private static final long THUMB_WAIT_MILLIS = 5_000;
+
     private final AttachmentService service;
     private final AttachmentStorageService storage;
+    private final AttachmentPreviewService previews;
 
-    public AttachmentController(AttachmentService service, AttachmentStorageService storage) {
+    public AttachmentController(AttachmentService service, AttachmentStorageService storage,
+                                AttachmentPreviewService previews) {
         this.service = service;
         this.storage = storage;
+        this.previews = previews;
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -35,26 +72,216 @@ public class AttachmentController {
         return AttachmentMapper.toDto(a);
     }
 
+    /**
+     * Streaming-Upload ohne Multipart-Spooling: der Request-Body ist die Datei selbst
+     * (Content-Type = MIME der Datei, Name per ?filename= oder Header X-Filename, URL-kodiert).
+     * Bytes gehen in einem Durchlauf in die Zieldatei; Limit = attachments.max-upload-size.
+     */
+    @PostMapping(path = "/stream")
+    public AttachmentDto uploadStream(@PathVariable Long taskId,
+                                      @RequestParam(required = false) String filename,
+                                      @RequestHeader(value = "X-Filename", required = false) String filenameHeader,
+                                      HttpServletRequest request) throws IOException {
+        long declared = request.getContentLengthLong();
+        if (declared > storage.getMaxUploadBytes()) {
+            throw new MaxUploadSizeExceededException(storage.getMaxUploadBytes());
+        }
+        String name = filename;
+        if ((name == null || name.isBlank()) && filenameHeader != null) {
+            name = URLDecoder.decode(filenameHeader, StandardCharsets.UTF_8);
+        }
+        Attachment a = service.upload(taskId, request.getInputStream(), name, request.getContentType());
+        return AttachmentMapper.toDto(a);
+    }
+
     @GetMapping
     public List<AttachmentDto> list(@PathVariable Long taskId) {
         return service.list(taskId).stream().map(AttachmentMapper::toDto).toList();
     }
 
+    /**
+     * Download mit HTTP-Caching und Range-Support:
+     * - ETag = Storage-Key (Blob unter einem Key ändert sich nie) → Cache-Control immutable
+     * - If-None-Match / If-Modified-Since → 304
+     * - Range (ein Bereich) → 206, sonst 200; If-Range wird beachtet; ungültig → 416
+     * - Übertragung zero-copy per Tomcat-Sendfile, sonst FileChannel.transferTo
+     * - gzip-komprimiert abgelegte Blobs: unverändert mit Content-Encoding, wenn der Client gzip
+     *   akzeptiert und keinen Range will; sonst beim Senden entpackt (Range dann über den Originalinhalt)
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Resource> download(@PathVariable Long taskId, @PathVariable Long id) {
+    public void download(@PathVariable Long taskId, @PathVariable Long id,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
         Attachment a = service.get(taskId, id);
-        Resource resource = storage.loadAsResource(a.getStorageKey());
+        Path file = storage.resolve(a.getStorageKey());
+        if (!Files.isRegularFile(file)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Datei zu Attachment " + id + " fehlt");
+        }
+        boolean gzipped = AttachmentStorageService.GZIP.equals(storage.encodingOf(file));
+        boolean sendEncoded = gzipped && acceptsGzip(request) && request.getHeader(HttpHeaders.RANGE) == null;
+        boolean decode = gzipped && !sendEncoded;
+        long length = decode ? a.getSize() : Files.size(file);
+        // Eigenes ETag je Repräsentation (RFC 9110: verschiedene Content-Encodings ≠ gleiches ETag)
+        String etag = "\"" + a.getStorageKey() + (sendEncoded ? "-gzip" : "") + "\"";
+        long lastModified = a.getCreatedAt() != null ? a.getCreatedAt().toEpochMilli() : Files.getLastModifiedTime(file).toMillis();
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (gzipped) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return; // 304, ETag/Last-Modified bereits gesetzt
+        }
+
         ContentDisposition cd = ContentDisposition.attachment()
                 .filename(a.getFilename(), StandardCharsets.UTF_8)
                 .build();
+        response.setContentType(a.getMime());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, cd.toString());
+        if (sendEncoded) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, AttachmentStorageService.GZIP);
+        }
+
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = singleRange(request, etag, lastModified);
+        if (range != null) {
+            if (length == 0 || range.getRangeStart(length) >= length) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length);
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(Math.max(0, count));
+        if (count <= 0 || "HEAD".equalsIgnoreCase(request.getMethod())) return;
+        storage.countSent(count); // angeforderte Bytes; ein Abbruch durch den Client zählt trotzdem voll
+
+        if (decode) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(file), 64 * 1024)) {
+                in.skipNBytes(start);
+                copy(in, response.getOutputStream(), count);
+            }
+            return;
+        }
+
+        if (count >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat übernimmt nach dem Handler (sendfile(2) direkt auf den Socket)
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long pos = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long n = in.transferTo(pos, remaining, out);
+                if (n <= 0) break;
+                pos += n;
+                remaining -= n;
+            }
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out, long count) throws IOException {
+        byte[] buf = new byte[64 * 1024];
+        long remaining = count;
+        while (remaining > 0) {
+            int n = in.read(buf, 0, (int) Math.min(buf.length, remaining));
+            if (n < 0) break;
+            out.write(buf, 0, n);
+            remaining -= n;
+        }
+    }
+
+    /** Accept-Encoding enthält gzip (bzw. *) ohne q=0. */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) return false;
+        for (String part : header.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            if (!coding.equals("gzip") && !coding.equals("x-gzip") && !coding.equals("*")) continue;
+            boolean refused = false;
+            for (int i = 1; i < tokens.length; i++) {
+                String p = tokens[i].trim().replace(" ", "");
+                if (p.matches("q=0(\\.0{0,3})?")) refused = true;
+            }
+            if (!refused) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Vorschaubild (JPEG) für Bilder und PDFs. 404 = kein Vorschau-Typ bzw. nicht erzeugbar,
+     * 503 + Retry-After = wird gerade erzeugt.
+     */
+    @GetMapping("/{id}/thumb")
+    public ResponseEntity<Resource> thumbnail(@PathVariable Long taskId, @PathVariable Long id,
+                                              ServletWebRequest webRequest) {
+        Attachment a = service.get(taskId, id);
+        String etag = "\"" + a.getStorageKey() + "-thumb\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304
+        }
+        Path thumb;
+        try {
+            thumb = previews.thumbnail(a.getStorageKey(), a.getMime(), THUMB_WAIT_MILLIS)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Keine Vorschau für Attachment " + id));
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "2")
+                    .build();
+        }
         return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(a.getMime()))
-                .header(HttpHeaders.CONTENT_DISPOSITION, cd.toString())
-                .body(resource);
+                .contentType(MediaType.IMAGE_JPEG)
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable())
+                .eTag(etag)
+                .body(new FileSystemResource(thumb));
+    }
+
+    /**
+     * Liefert den (einzigen) angefragten Bereich oder null (→ komplette Datei).
+     * Mehrere Bereiche, fehlerhafte Header und nicht passendes If-Range werden ignoriert (RFC 9110 erlaubt das).
+     */
+    private static HttpRange singleRange(HttpServletRequest request, String etag, long lastModified) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null || header.isBlank()) return null;
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.isBlank()) {
+            String value = ifRange.trim();
+            if (value.startsWith("\"") || value.startsWith("W/")) {
+                // Entity-Tag (z. B. "<key>-gzip" aus einem ungeteilten Abruf): nur exakter Treffer zählt
+                if (!value.equals(etag)) return null;
+            } else {
+                long since;
+                try {
+                    since = request.getDateHeader(HttpHeaders.IF_RANGE);
+                } catch (IllegalArgumentException ex) {
+                    return null; // weder ETag noch Datum → komplette Datei
+                }
+                if (since < 0 || lastModified / 1000 > since / 1000) return null;
+            }
+        }
+
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> remove(@PathVariable Long taskId, @PathVariable Long id) throws IOException {
+    public ResponseEntity<Void> remove(@PathVariable Long taskId, @PathVariable Long id) {
         service.delete(taskId, id);
         return ResponseEntity.noContent().build();
     }
@@ -0,0 +1,65 @@
+package com.pp.taskmanagementbackend.controller;
+
+import com.pp.taskmanagementbackend.repository.AttachmentRepository;
+import com.pp.taskmanagementbackend.service.AttachmentCleanupService;
+import com.pp.taskmanagementbackend.service.AttachmentStorageService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Wartung des Attachment-Speichers (Admin-Aufrufe, nicht vom Frontend genutzt).
+ *
+ * GET  /api/attachments/maintenance/stats            (Dedupe-/Komprimierungs-Ersparnis)
+ * POST /api/attachments/maintenance/migrate-layout   (flache Blobs → ab/cd/abcdef…)
+ * POST /api/attachments/maintenance/sweep            (verwaiste Blobs vormerken, Outbox abarbeiten)
+ */
+@RestController
+@RequestMapping("/api/attachments/maintenance")
+public class AttachmentMaintenanceController {
+
+    private final AttachmentStorageService storage;
+    private final AttachmentRepository repo;
+    private final AttachmentCleanupService cleanup;
+
+    public AttachmentMaintenanceController(AttachmentStorageService storage, AttachmentRepository repo,
+                                           AttachmentCleanupService cleanup) {
+        this.storage = storage;
+        this.repo = repo;
+        this.cleanup = cleanup;
+    }
+
+    @PostMapping("/sweep")
+    public Map<String, Object> sweep() throws IOException {
+        AttachmentCleanupService.SweepResult result = cleanup.sweep();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("sweep", result);
+        body.put("deleted", cleanup.processDue());
+        return body;
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Long> stats() {
+        AttachmentRepository.StorageStats s = repo.storageStats();
+        Map<String, Long> body = new LinkedHashMap<>();
+        body.put("attachments", s.getAttachments());
+        body.put("logicalBytes", s.getLogicalBytes());
+        body.put("blobs", s.getBlobs());
+        body.put("originalBytes", s.getOriginalBytes());
+        body.put("storedBytes", s.getStoredBytes());
+        body.put("savedBytes", s.getLogicalBytes() - s.getStoredBytes());
+        return body;
+    }
+
+    @PostMapping("/migrate-layout")
+    public AttachmentStorageService.MigrationResult migrateLayout() throws IOException {
+        if (!storage.isSharded()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "attachments.sharded=false – keine Migration nötig");
+        }
+        return storage.migrateToSharded();
+    }
+}
@@ -2,6 +2,7 @@ package com.pp.taskmanagementbackend.controller;
 
 import com.pp.taskmanagementbackend.model.Customer;
 import com.pp.taskmanagementbackend.repository.CustomerRepository;
+import com.pp.taskmanagementbackend.service.SuggestIndexService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,9 +14,11 @@ import java.util.List;
 public class CustomerController {
 
     private final CustomerRepository repo;
+    private final SuggestIndexService suggestIndex;
 
-    public CustomerController(CustomerRepository repo) {
+    public CustomerController(CustomerRepository repo, SuggestIndexService suggestIndex) {
         this.repo = repo;
+        this.suggestIndex = suggestIndex;
     }
 
     @GetMapping
@@ -33,6 +36,7 @@ public class CustomerController {
         c.setId(null);
         if (c.getActive() == null) c.setActive(Boolean.TRUE);
         var saved = repo.save(c);
+        suggestIndex.onCustomerSaved(null, saved);
         return ResponseEntity.created(URI.create("/api/customers/" + saved.getId())).body(saved);
     }
 
@@ -40,18 +44,22 @@ public class CustomerController {
     public ResponseEntity<Customer> update(@PathVariable Long id, @RequestBody Customer c) {
         var existing = repo.findById(id).orElse(null);
         if (existing == null) return ResponseEntity.notFound().build();
+        String oldName = Boolean.TRUE.equals(existing.getActive()) ? existing.getName() : null;
 
         if (c.getName() != null && !c.getName().isBlank()) existing.setName(c.getName());
         if (c.getActive() != null) existing.setActive(c.getActive());
 
         var saved = repo.save(existing);
+        suggestIndex.onCustomerSaved(oldName, saved);
         return ResponseEntity.ok(saved);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        if (!repo.existsById(id)) return ResponseEntity.notFound().build();
-        repo.deleteById(id);
+        var existing = repo.findById(id).orElse(null);
+        if (existing == null) return ResponseEntity.notFound().build();
+        repo.delete(existing);
+        suggestIndex.onCustomerDeleted(existing);
         return ResponseEntity.noContent().build();
     }
 }
@@ -1,8 +1,10 @@
 package com.pp.taskmanagementbackend.controller;
 
 import com.pp.taskmanagementbackend.model.Arbeitsstation;
+import com.pp.taskmanagementbackend.model.StationDayLoad;
 import com.pp.taskmanagementbackend.model.Task;
 import com.pp.taskmanagementbackend.repository.ArbeitsstationRepository;
+import com.pp.taskmanagementbackend.repository.StationDayLoadRepository;
 import com.pp.taskmanagementbackend.repository.TaskRepository;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -16,13 +18,17 @@ import java.util.stream.Collectors;
 /**
  * Aggregation-API für Dashboard-Visualisierungen (Balken/Heatmap).
  *
- * GET /api/dashboard/utilization?from=YYYY-MM-DD&to=YYYY-MM-DD
+ * GET /api/dashboard/utilization?from=YYYY-MM-DD&to=YYYY-MM-DD[&source=materialized]
  *
  * v0.8 Logik:
  * - Stunden werden am endDatum gebucht.
  * - Überfällige, noch nicht fertige Tasks (endDatum < from) werden als Carry-In
  *   auf den ersten sichtbaren Tag (from) gebucht.
  * - Fertige Tasks werden ausgeschlossen (Status "FERTIG"/"DONE" etc.).
+ *
+ * source=materialized:
+ * - liest die per DB-Trigger gepflegte Tabelle station_day_load statt aller Tasks.
+ * - "fertig" = task_statuses.is_final (statt der Code-Liste oben).
  */
 @RestController
 @RequestMapping("/api/dashboard")
@@ -30,11 +36,14 @@ public class DashboardUtilizationController {
 
     private final TaskRepository taskRepository;
     private final ArbeitsstationRepository stationRepository;
+    private final StationDayLoadRepository stationDayLoadRepository;
 
     public DashboardUtilizationController(TaskRepository taskRepository,
-                                          ArbeitsstationRepository stationRepository) {
+                                          ArbeitsstationRepository stationRepository,
+                                          StationDayLoadRepository stationDayLoadRepository) {
         this.taskRepository = taskRepository;
         this.stationRepository = stationRepository;
+        this.stationDayLoadRepository = stationDayLoadRepository;
     }
 
     @GetMapping("/utilization")
@@ -42,7 +51,8 @@ public class DashboardUtilizationController {
             @RequestParam(value = "from", required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam(value = "to", required = false)
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "source", required = false) String source
     ) {
         // Default-Zeitraum: heute .. heute+6 (7 Tage)
         LocalDate today = LocalDate.now();
@@ -64,10 +74,37 @@ public class DashboardUtilizationController {
                         st -> st.getDailyCapacityHours() != null ? st.getDailyCapacityHours() : new BigDecimal("8.00")
                 ));
 
+        // station -> (date -> sum hours)
+        Map<String, Map<LocalDate, Double>> sum = "materialized".equalsIgnoreCase(source)
+                ? sumMaterialized(from, to)
+                : sumFromTasks(from, to);
+
+        // Stationen ohne Einträge ergänzen (für stabile Heatmap)
+        Set<String> allStationNames = new HashSet<>(capacityByStation.keySet());
+        allStationNames.addAll(sum.keySet());
+
+        List<StationUtilizationDto> out = new ArrayList<>();
+        for (String station : allStationNames) {
+            Map<LocalDate, Double> perDay = sum.getOrDefault(station, Collections.emptyMap());
+            List<DayEntryDto> dayEntries = new ArrayList<>(days.size());
+            for (LocalDate d : days) {
+                dayEntries.add(new DayEntryDto(d.toString(), round2(perDay.getOrDefault(d, 0.0))));
+            }
+            BigDecimal cap = capacityByStation.getOrDefault(station, new BigDecimal("8.00"));
+            out.add(new StationUtilizationDto(station, cap, dayEntries));
+        }
+
+        out.sort(Comparator.comparing(o -> o.station == null ? "" : o.station));
+        return ResponseEntity.ok(out);
+    }
+
+    /* ---------------------- Datenquellen ---------------------- */
+
+    /** Aggregation in Java über alle Tasks (Default). */
+    private Map<String, Map<LocalDate, Double>> sumFromTasks(LocalDate from, LocalDate to) {
         // Alle Tasks (pragmatisch)
         List<Task> tasks = taskRepository.findAll();
 
-        // station -> (date -> sum hours)
         Map<String, Map<LocalDate, Double>> sum = new HashMap<>();
 
         for (Task t : tasks) {
@@ -90,24 +127,23 @@ public class DashboardUtilizationController {
             Map<LocalDate, Double> perDay = sum.get(station);
             perDay.put(bookDay, perDay.getOrDefault(bookDay, 0.0) + hrs);
         }
+        return sum;
+    }
 
-        // Stationen ohne Einträge ergänzen (für stabile Heatmap)
-        Set<String> allStationNames = new HashSet<>(capacityByStation.keySet());
-        allStationNames.addAll(sum.keySet());
+    /** Aggregation aus station_day_load (per Trigger gepflegt); nur noch Carry-In wird hier gefaltet. */
+    private Map<String, Map<LocalDate, Double>> sumMaterialized(LocalDate from, LocalDate to) {
+        Map<String, Map<LocalDate, Double>> sum = new HashMap<>();
+        for (StationDayLoad row : stationDayLoadRepository.findAllByDayLessThanEqual(to)) {
+            double hrs = row.getHours() != null ? row.getHours().doubleValue() : 0.0;
+            if (hrs <= 0.0) continue;
 
-        List<StationUtilizationDto> out = new ArrayList<>();
-        for (String station : allStationNames) {
-            Map<LocalDate, Double> perDay = sum.getOrDefault(station, Collections.emptyMap());
-            List<DayEntryDto> dayEntries = new ArrayList<>(days.size());
-            for (LocalDate d : days) {
-                dayEntries.add(new DayEntryDto(d.toString(), round2(perDay.getOrDefault(d, 0.0))));
-            }
-            BigDecimal cap = capacityByStation.getOrDefault(station, new BigDecimal("8.00"));
-            out.add(new StationUtilizationDto(station, cap, dayEntries));
-        }
+            // Carry-In: wenn day < from, buche auf from
+            LocalDate bookDay = row.getDay().isBefore(from) ? from : row.getDay();
 
-        out.sort(Comparator.comparing(o -> o.station == null ? "" : o.station));
-        return ResponseEntity.ok(out);
+            Map<LocalDate, Double> perDay = sum.computeIfAbsent(row.getStation(), k -> new HashMap<>());
+            perDay.put(bookDay, perDay.getOrDefault(bookDay, 0.0) + hrs);
+        }
+        return sum;
     }
 
     /* ---------------------- Helpers & DTOs ---------------------- */
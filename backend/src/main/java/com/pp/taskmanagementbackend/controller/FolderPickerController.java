@@ -4,7 +4,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.pp.taskmanagementbackend.service.FolderIndexService;
 import com.pp.taskmanagementbackend.service.FolderPickerService;
+import com.pp.taskmanagementbackend.service.PathValidationService;
 
 import java.io.IOException;
 import java.nio.file.DirectoryNotEmptyException;
@@ -24,9 +26,14 @@ public class FolderPickerController {
 	private static final Logger log = LoggerFactory.getLogger(FolderPickerController.class);
 
     private final FolderPickerService folderPickerService;
+    private final FolderIndexService folderIndex;
+    private final PathValidationService pathValidation;
 
-    public FolderPickerController(FolderPickerService folderPickerService) {
+    public FolderPickerController(FolderPickerService folderPickerService, FolderIndexService folderIndex,
+                                  PathValidationService pathValidation) {
         this.folderPickerService = folderPickerService;
+        this.folderIndex = folderIndex;
+        this.pathValidation = pathValidation;
         log.info("[FolderPicker] Controller initialisiert.");
     }
 
@@ -44,12 +51,45 @@ public class FolderPickerController {
         return Map.of("folders", folderPickerService.subfolders(sub));
     }
 
+    // ---- Suche über den Ordner-Index: { "folders": [ "Kunde/2024/FA123", ... ], "indexedAt": "..." }
+    @GetMapping("/search")
+    public Map<String, Object> search(@RequestParam("q") String q,
+                                      @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("folders", folderIndex.search(q, limit));
+        body.put("indexedAt", folderIndex.getLastScan() != null ? folderIndex.getLastScan().toString() : null);
+        return body;
+    }
+
+    // ---- Index neu aufbauen (inkrementell, im Hintergrund): 202 Accepted
+    @PostMapping("/index/rescan")
+    public ResponseEntity<Void> rescanIndex() {
+        folderIndex.requestRescan();
+        pathValidation.invalidateAll();
+        return ResponseEntity.accepted().build();
+    }
+
     // ---- Exists: { "exists": true|false }
     @GetMapping("/exists")
     public Map<String, Boolean> exists(@RequestParam(value = "sub", required = false) String sub) {
         return Map.of("exists", folderPickerService.exists(sub));
     }
 
+    // ---- Sammelprüfung: Body { "paths": [...] } -> { "<pfad>": { exists, directory, lastModified, error } }
+    @PostMapping("/validate")
+    public Map<String, PathValidationService.PathStatus> validate(@RequestBody Map<String, List<String>> body) {
+        List<String> paths = body != null ? body.get("paths") : null;
+        if (paths == null) throw new IllegalArgumentException("paths fehlt");
+        return pathValidation.validate(paths);
+    }
+
+    // ---- Dateipfade von Tasks prüfen (ohne taskIds: alle mit Dateipfad) -> { "<taskId>": { ... } }
+    @GetMapping("/validate-tasks")
+    public Map<Long, PathValidationService.PathStatus> validateTasks(
+            @RequestParam(value = "taskIds", required = false) List<Long> taskIds) {
+        return pathValidation.validateTasks(taskIds);
+    }
+
     // ---- Mkdir: 204 No Content
     @PostMapping("/mkdir")
     public ResponseEntity<Void> mkdir(
@@ -57,6 +97,8 @@ public class FolderPickerController {
             @RequestParam("name") String name
     ) throws IOException {
         folderPickerService.mkdir(sub, name);
+        folderIndex.requestRefresh(folderPickerService.resolve(sub));
+        pathValidation.invalidateAll();
         return ResponseEntity.noContent().build();
     }
 
@@ -76,6 +118,8 @@ public class FolderPickerController {
             @RequestParam("name") String name
     ) throws IOException {
         folderPickerService.rmdir(sub, name);
+        folderIndex.requestRefresh(folderPickerService.resolve(sub));
+        pathValidation.invalidateAll();
         return ResponseEntity.noContent().build();
     }
 
@@ -87,6 +131,8 @@ public class FolderPickerController {
             @RequestParam("to") String to
     ) throws IOException {
         folderPickerService.rename(sub, from, to);
+        folderIndex.requestRefresh(folderPickerService.resolve(sub));
+        pathValidation.invalidateAll();
         return ResponseEntity.noContent().build();
     }
     
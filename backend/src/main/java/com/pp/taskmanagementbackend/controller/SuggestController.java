@@ -0,0 +1,32 @@
+package com.pp.taskmanagementbackend.controller;
+
+import com.pp.taskmanagementbackend.service.SuggestIndexService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Typeahead-Vorschläge aus dem In-Memory-Präfixindex (kein DB-Zugriff pro Tastendruck).
+ *
+ * GET /api/suggest?type=customer|assignee|teilenummer|fa&q=...&limit=10
+ */
+@RestController
+@RequestMapping("/api/suggest")
+public class SuggestController {
+
+    private final SuggestIndexService suggestIndex;
+
+    public SuggestController(SuggestIndexService suggestIndex) {
+        this.suggestIndex = suggestIndex;
+    }
+
+    @GetMapping
+    public List<String> suggest(@RequestParam("type") String type,
+                                @RequestParam(value = "q", defaultValue = "") String q,
+                                @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return suggestIndex.suggest(type, q, limit);
+    }
+}
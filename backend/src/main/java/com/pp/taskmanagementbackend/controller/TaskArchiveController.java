@@ -0,0 +1,45 @@
+package com.pp.taskmanagementbackend.controller;
+
+import com.pp.taskmanagementbackend.api.dto.TaskDto;
+import com.pp.taskmanagementbackend.mapper.TaskMapper;
+import com.pp.taskmanagementbackend.service.TaskArchiveService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lesender Zugriff auf archivierte Tasks (nur auf Anfrage, nicht Teil von /api/tasks).
+ *
+ * GET  /api/tasks/archive?station=...&limit=200
+ * GET  /api/tasks/archive/{id}
+ * POST /api/tasks/archive/run   (Job manuell anstoßen)
+ */
+@RestController
+@RequestMapping("/api/tasks/archive")
+public class TaskArchiveController {
+
+    private final TaskArchiveService archiveService;
+
+    public TaskArchiveController(TaskArchiveService archiveService) {
+        this.archiveService = archiveService;
+    }
+
+    @GetMapping
+    public List<TaskDto> list(@RequestParam(value = "station", required = false) String station,
+                              @RequestParam(value = "limit", defaultValue = "200") int limit) {
+        return archiveService.list(station, limit).stream()
+                .map(a -> TaskMapper.toDto(a.toTask()))
+                .toList();
+    }
+
+    @GetMapping("/{id:\\d+}")
+    public TaskDto get(@PathVariable Long id) {
+        return TaskMapper.toDto(archiveService.findById(id).toTask());
+    }
+
+    @PostMapping("/run")
+    public Map<String, Integer> run() {
+        return Map.of("archived", archiveService.archiveNow());
+    }
+}
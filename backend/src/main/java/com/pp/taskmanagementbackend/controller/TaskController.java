@@ -13,6 +13,7 @@ import com.pp.taskmanagementbackend.repository.TaskStatusRepository;
 import com.pp.taskmanagementbackend.repository.TaskRepository;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.ResponseEntity;
@@ -32,6 +33,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
+import java.util.HashMap;
 
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
 @RestController
@@ -87,16 +89,31 @@ public class TaskController {
     public List<TaskDto> list() {
         List<Task> entities = service.findAll(); // oder deine bestehende Methode
         List<TaskDto> out = new ArrayList<>(entities.size());
-        
+
+        // Anhänge je Task in einer Query statt countByTaskId je Karte
+        Map<Long, Long> counts = new HashMap<>();
+        for (AttachmentRepository.TaskAttachmentCount c : attachmentRepository.countGroupedByTask()) {
+            counts.put(c.getTaskId(), c.getCount());
+        }
+
         for (Task t : entities) {
             TaskDto dto = TaskMapper.toDto(t);
-            int cnt = Math.toIntExact(attachmentRepository.countByTaskId(t.getId()));
+            int cnt = Math.toIntExact(counts.getOrDefault(t.getId(), 0L));
             dto.setAttachmentCount(Integer.valueOf(cnt));
             out.add(dto);
         }
         return out;
     }
 
+    /** Gerankte Suche (Teilenummer, FA, Kunde, Bezeichnung) – serverseitig statt Client-Filter. */
+    @GetMapping("/search")
+    public List<TaskDto> search(@RequestParam("q") String q,
+                                @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return service.search(q, limit).stream()
+                .map(TaskMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
     @GetMapping("/{id:\\d+}")
     public TaskDto get(@PathVariable Long id) {
         Task entity = requireTask(id);
@@ -125,22 +142,39 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(TaskMapper.toDto(saved));
     }
 
+    /**
+     * Teil-Update. Version per If-Match ("5" oder W/"5") oder "version" im Body; ohne beides
+     * gewinnt wie bisher die letzte Änderung. Antwort trägt die neue Version als ETag.
+     * 409 mit aktuellem Stand, wenn sich Felder überschneiden (siehe TaskService.patch).
+     */
     @PatchMapping("/{id:\\d+}")
-    public TaskDto patch(@PathVariable Long id, @RequestBody TaskDto dto) {
-        Task entity = requireTask(id);
-        
-        TaskMapper.updateEntityFromDto(dto, entity);
-        // ▼ Status-Code übernehmen
-        String code = (dto.getStatusCode() != null && !dto.getStatusCode().isBlank())
-            ? dto.getStatusCode().trim()
-            : (dto.getStatus() != null ? dto.getStatus().toString().trim() : null);
-        if (code != null && !code.isEmpty()) {
-            // optional: assertActiveStatusOr400(code);
-            entity.setStatusCode(code);
+    public ResponseEntity<TaskDto> patch(@PathVariable Long id, @RequestBody TaskDto dto,
+                                         @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        Integer expected = parseVersion(ifMatch);
+        if (expected == null) expected = dto.getVersion();
+
+        Task saved;
+        try {
+            saved = service.patch(id, dto, expected);
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            // zwischen Laden und Flush committet: einmal neu laden; mit Version greift dann der Merge
+            log.info("PATCH /tasks/{}: gleichzeitige Änderung, neuer Versuch", id);
+            saved = service.patch(id, dto, expected);
         }
+        TaskDto out = TaskMapper.toDto(saved);
+        return ResponseEntity.ok().eTag("\"" + saved.getVersion() + "\"").body(out);
+    }
 
-        Task saved = service.save(entity);
-        return TaskMapper.toDto(saved);
+    private static Integer parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+        String v = ifMatch.trim();
+        if (v.startsWith("W/")) v = v.substring(2);
+        v = v.replace("\"", "").trim();
+        try {
+            return Integer.valueOf(v);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "If-Match ungültig: " + ifMatch);
+        }
     }
 
     @DeleteMapping("/{id:\\d+}")
@@ -238,8 +272,7 @@ public class TaskController {
         return ResponseEntity.badRequest().build();
       }
 
-      sortService.applyOrder(station, ids);
-      publisher.onTaskUpdated();
+      sortService.applyOrder(station, ids); // publiziert selbst (nur betroffene Stationen)
       log.info("DnD /sort OK: station={} ids={}", station, ids);
       return ResponseEntity.noContent().build();
     }
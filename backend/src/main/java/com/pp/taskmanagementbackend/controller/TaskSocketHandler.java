@@ -0,0 +1,291 @@
+package com.pp.taskmanagementbackend.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pp.taskmanagementbackend.config.VirtualThreadsConfig;
+import com.pp.taskmanagementbackend.events.TaskChangeListener;
+import com.pp.taskmanagementbackend.events.TaskEventScope;
+import com.pp.taskmanagementbackend.mapper.TaskMapper;
+import com.pp.taskmanagementbackend.model.Task;
+import com.pp.taskmanagementbackend.service.TaskSortService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * WebSocket-Alternative zu /api/tasks/stream (websocket.enabled=true), Endpoint /api/tasks/ws[?station=…].
+ *
+ * Server → Client (kompakte JSON-Frames):
+ *   {"t":"u","id":12,"v":5,"bv":4,"f":{"prioritaet":3}}  Änderung; f = nur geänderte Felder ggü. Version bv.
+ *                                                       Ohne bv ist f der vollständige Task.
+ *                                                       Passt bv nicht zur lokalen Version → Task neu laden.
+ *   {"t":"d","id":12}                                   gelöscht
+ *   {"t":"r"}                                           neu laden (Archivierung o. Ä.)
+ *   {"t":"ack","ref":"…"} / {"t":"err","ref":"…","msg":"…"}
+ * Client → Server:
+ *   {"op":"sort","ref":"…","stationId":3,"ids":[5,9,2]}  wie PATCH /api/tasks/sort
+ *   {"op":"ping"}
+ */
+@Component
+@ConditionalOnProperty(prefix = "websocket", name = "enabled", havingValue = "true")
+public class TaskSocketHandler extends TextWebSocketHandler implements TaskChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskSocketHandler.class);
+
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int SEND_BUFFER_BYTES = 256 * 1024;
+    /** Obergrenze für den Delta-Stand; darüber einmal leeren (nächste Frames sind dann vollständig). */
+    private static final int MAX_SNAPSHOTS = 20_000;
+    /** Felder, die nicht in Deltas gehören (kommen aus anderen Quellen bzw. stehen im Frame selbst). */
+    private static final Set<String> NON_DELTA_FIELDS = Set.of("id", "version", "attachmentCount");
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    /**
+     * Offene Verbindung; stations = null → alle Stationen. out hält die Reihenfolge der Frames je Session
+     * (Delta v4 vor v5, Sortier-Deltas vor dem ack) – sonst passt bv nicht und der Client lädt neu.
+     */
+    private record Client(WebSocketSession session, Set<String> stations, Executor out) {}
+
+    /** Zuletzt verschickter Stand je Task (Basis für die Deltas). */
+    private record Snapshot(Integer version, Map<String, Object> fields) {}
+
+    private final ObjectMapper objectMapper;
+    private final TaskSortService sortService;
+    private final Executor sendExecutor;
+    private final ConcurrentHashMap<String, Client> clients = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Snapshot> lastSent = new ConcurrentHashMap<>();
+
+    public TaskSocketHandler(ObjectMapper objectMapper, TaskSortService sortService, VirtualThreadsConfig threads) {
+        this.objectMapper = objectMapper;
+        this.sortService = sortService;
+        this.sendExecutor = threads.sseSendExecutor();
+    }
+
+    public int getSessionCount() {
+        return clients.size();
+    }
+
+    // ---------------- Verbindungen ----------------
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        Set<String> stations = null;
+        if (session.getUri() != null) {
+            List<String> raw = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().get("station");
+            if (raw != null) {
+                Set<String> s = new LinkedHashSet<>();
+                for (String part : raw) {
+                    for (String v : part.split(",")) {
+                        String n = TaskEventScope.normalize(v);
+                        if (n != null) s.add(n);
+                    }
+                }
+                stations = s.isEmpty() ? null : Set.copyOf(s);
+            }
+        }
+        Client c = new Client(new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_BYTES),
+                stations, new SerialExecutor(sendExecutor));
+        clients.put(session.getId(), c);
+        send(c, Map.of("t", "hello"));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        clients.remove(session.getId());
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("[WS] Transportfehler {}: {}", session.getId(), exception.toString());
+        clients.remove(session.getId());
+    }
+
+    // ---------------- Client → Server ----------------
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        Client c = clients.get(session.getId());
+        if (c == null) return;
+        Object ref = null;
+        try {
+            Map<String, Object> msg = objectMapper.readValue(message.getPayload(), MAP_TYPE);
+            ref = msg.get("ref");
+            String op = String.valueOf(msg.get("op"));
+            switch (op) {
+                case "ping" -> send(c, Map.of("t", "pong"));
+                case "sort" -> {
+                    Long stationId = toLong(msg.get("stationId"));
+                    List<Long> ids = new ArrayList<>();
+                    if (msg.get("ids") instanceof List<?> list) {
+                        for (Object o : list) {
+                            Long id = toLong(o);
+                            if (id != null) ids.add(id);
+                        }
+                    }
+                    if (stationId == null || ids.isEmpty()) {
+                        throw new IllegalArgumentException("stationId und ids erforderlich");
+                    }
+                    sortService.applyOrder(stationId, ids); // Deltas kommen über taskSaved()
+                    send(c, frame("t", "ack", "ref", ref));
+                }
+                default -> throw new IllegalArgumentException("Unbekannte op: " + op);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("[WS] Nachricht von {} abgelehnt: {}", session.getId(), e.toString());
+            send(c, frame("t", "err", "ref", ref, "msg", e.getMessage()));
+        }
+    }
+
+    private static Long toLong(Object o) {
+        if (o instanceof Number n) return n.longValue();
+        if (o instanceof String s && !s.isBlank()) {
+            try {
+                return Long.valueOf(s.trim());
+            } catch (NumberFormatException ignored) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // ---------------- Server → Client ----------------
+
+    @Override
+    public void taskSaved(Task task, TaskEventScope scope) {
+        if (task.getId() == null) return;
+        Map<String, Object> fields = objectMapper.convertValue(TaskMapper.toDto(task), MAP_TYPE);
+        NON_DELTA_FIELDS.forEach(fields::remove);
+        Snapshot next = new Snapshot(task.getVersion(), fields);
+
+        if (lastSent.size() >= MAX_SNAPSHOTS) lastSent.clear();
+        Snapshot[] prev = new Snapshot[1];
+        lastSent.compute(task.getId(), (id, old) -> {
+            prev[0] = old;
+            return next;
+        });
+
+        Map<String, Object> out = frame("t", "u", "id", task.getId(), "v", task.getVersion());
+        Snapshot base = prev[0];
+        if (base != null && base.version() != null) {
+            Map<String, Object> delta = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> e : fields.entrySet()) {
+                if (!Objects.equals(e.getValue(), base.fields().get(e.getKey()))) delta.put(e.getKey(), e.getValue());
+            }
+            if (delta.isEmpty() && Objects.equals(base.version(), task.getVersion())) return; // nichts Neues
+            out.put("bv", base.version());
+            out.put("f", delta);
+        } else {
+            out.put("f", fields);
+        }
+
+        Set<String> stations = scope.stations(); // null = alle
+        for (Client c : clients.values()) {
+            if (c.stations() == null || stations == null || stations.stream().anyMatch(c.stations()::contains)) {
+                send(c, out);
+            }
+        }
+    }
+
+    @Override
+    public void taskDeleted(Long taskId) {
+        lastSent.remove(taskId);
+        Map<String, Object> out = frame("t", "d", "id", taskId);
+        clients.values().forEach(c -> send(c, out));
+    }
+
+    @Override
+    public void tasksReset() {
+        lastSent.clear();
+        Map<String, Object> out = Map.of("t", "r");
+        clients.values().forEach(c -> send(c, out));
+    }
+
+    private void send(Client c, Map<String, Object> frame) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(frame);
+        } catch (IOException e) {
+            log.warn("[WS] Frame nicht serialisierbar: {}", e.toString());
+            return;
+        }
+        c.out().execute(() -> {
+            if (!c.session().isOpen()) return; // schon getrennt, Rest der Warteschlange verwerfen
+            try {
+                c.session().sendMessage(new TextMessage(json));
+            } catch (IOException | RuntimeException e) {
+                // u. a. SessionLimitExceededException: Client zu langsam → trennen
+                clients.remove(c.session().getId());
+                try {
+                    c.session().close(CloseStatus.SESSION_NOT_RELIABLE);
+                } catch (IOException ignored) {
+                    // ohnehin weg
+                }
+            }
+        });
+    }
+
+    /**
+     * Führt Aufgaben einer Session nacheinander auf dem gemeinsamen Sende-Executor aus (höchstens eine
+     * gleichzeitig, in Einreihungsreihenfolge). Langsame Clients puffert bzw. trennt der
+     * ConcurrentWebSocketSessionDecorator.
+     */
+    private static final class SerialExecutor implements Executor {
+        private final Executor delegate;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean active = new AtomicBoolean();
+
+        SerialExecutor(Executor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+            schedule();
+        }
+
+        private void schedule() {
+            if (active.compareAndSet(false, true)) delegate.execute(this::drain);
+        }
+
+        private void drain() {
+            try {
+                Runnable next;
+                while ((next = tasks.poll()) != null) next.run();
+            } finally {
+                active.set(false);
+                if (!tasks.isEmpty()) schedule(); // zwischen poll() und set(false) eingereiht
+            }
+        }
+    }
+
+    /** Map mit stabiler Reihenfolge; null-Werte werden weggelassen. */
+    private static Map<String, Object> frame(Object... kv) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < kv.length; i += 2) {
+            if (kv[i + 1] != null) m.put((String) kv[i], kv[i + 1]);
+        }
+        return m;
+    }
+}
@@ -4,9 +4,13 @@ import com.pp.taskmanagementbackend.events.TaskEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskStreamController {
@@ -17,8 +21,20 @@ public class TaskStreamController {
         this.publisher = publisher;
     }
 
+    // ---- ?station=DMU50&status=NEU,IN_BEARBEITUNG (beides optional, mehrfach/kommagetrennt):
+    //      nur Events, die diese Stationen/Status betreffen
     @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter stream() {
-        return publisher.register();
+    public SseEmitter stream(@RequestParam(value = "station", required = false) List<String> stations,
+                             @RequestParam(value = "status", required = false) List<String> statuses) {
+        return publisher.register(stations, statuses);
+    }
+
+    // ---- { "subscribers": n, "evicted": n, "pendingSends": n }
+    @GetMapping("/stream/stats")
+    public Map<String, Object> stats() {
+        return Map.of(
+                "subscribers", publisher.getSubscriberCount(),
+                "evicted", publisher.getEvictedCount(),
+                "pendingSends", publisher.getPendingSendCount());
     }
 }
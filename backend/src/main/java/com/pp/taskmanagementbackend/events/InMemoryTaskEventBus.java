@@ -0,0 +1,39 @@
+package com.pp.taskmanagementbackend.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM-Bus (events.bus=local, Standard): Einzelinstanz und Tests. Mehrere Publisher/Relays,
+ * die sich eine Bus-Instanz teilen, verhalten sich wie mehrere Knoten.
+ */
+@Component
+@ConditionalOnProperty(prefix = "events", name = "bus", havingValue = "local", matchIfMissing = true)
+public class InMemoryTaskEventBus implements TaskEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryTaskEventBus.class);
+
+    private final List<Consumer<TaskBusEvent>> handlers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(TaskBusEvent event) {
+        for (Consumer<TaskBusEvent> h : handlers) {
+            try {
+                h.accept(event);
+            } catch (RuntimeException e) {
+                log.warn("[EventBus] Handler fehlgeschlagen: {}", e.toString());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<TaskBusEvent> handler) {
+        handlers.add(handler);
+    }
+}
@@ -0,0 +1,227 @@
+package com.pp.taskmanagementbackend.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pp.taskmanagementbackend.config.EventBusProperties;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Bus über Postgres LISTEN/NOTIFY (events.bus=postgres) – mehrere Backend-Container hinter Caddy
+ * ohne externen Broker.
+ * - publish: pg_notify über den normalen Pool (ein kurzes Statement, auch für alle Events einer Sortierung)
+ * - Empfang: eigene, dauerhaft offene JDBC-Verbindung außerhalb von Hikari (belegt keinen Pool-Slot),
+ *   ein Thread pollt getNotifications(); nach einer leeren Runde prüft ein SELECT 1 die Verbindung
+ *   (halboffene Sockets nach NAT-/Firewall-Drop oder Failover liefern sonst still nichts mehr),
+ *   tcpKeepAlive + socketTimeout sorgen dafür, dass dieses SELECT nicht ewig hängt
+ * - Zustellung an die Handler (DB-Lesen, SSE, WebSocket) auf einem eigenen Thread mit begrenzter
+ *   Warteschlange – ein hängender Client-Socket hält den Empfang nicht auf. Läuft sie über,
+ *   wird sie verworfen und durch ein RESET ersetzt
+ * - Nach einem Verbindungsabbruch können Events fehlen → lokal ein RESET, die Clients laden neu
+ */
+@Component
+@ConditionalOnProperty(prefix = "events", name = "bus", havingValue = "postgres")
+public class PostgresTaskEventBus implements TaskEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresTaskEventBus.class);
+
+    private static final int POLL_TIMEOUT_MS = 5_000;
+    private static final long MAX_RECONNECT_DELAY_MS = 30_000;
+    /** Lese-Timeout der LISTEN-Verbindung in Sekunden; deutlich über POLL_TIMEOUT_MS. */
+    private static final int SOCKET_TIMEOUT_SECONDS = 30;
+    private static final int MAX_PENDING_EVENTS = 10_000;
+
+    private final JdbcTemplate jdbc;
+    private final DataSourceProperties dataSource;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final String instanceId;
+    private final List<Consumer<TaskBusEvent>> handlers = new CopyOnWriteArrayList<>();
+
+    private final ThreadPoolExecutor dispatcher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_PENDING_EVENTS), r -> {
+                Thread t = new Thread(r, "event-bus-dispatch");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private volatile boolean running = true;
+    private Thread listener;
+
+    public PostgresTaskEventBus(JdbcTemplate jdbc, DataSourceProperties dataSource, ObjectMapper objectMapper,
+                                EventBusProperties props) {
+        this.jdbc = jdbc;
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.channel = props.getChannel();
+        this.instanceId = props.getInstanceId();
+        if (channel == null || !channel.matches("[a-z_][a-z0-9_]{0,62}")) {
+            throw new IllegalArgumentException("events.channel ungültig: " + channel);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (listener != null) return;
+        listener = new Thread(this::listenLoop, "event-bus-listen");
+        listener.setDaemon(true);
+        listener.start();
+        log.info("[EventBus] Postgres LISTEN {} (Instanz {})", channel, instanceId);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        if (listener != null) listener.interrupt();
+        dispatcher.shutdownNow();
+    }
+
+    @Override
+    public void publish(TaskBusEvent event) {
+        try {
+            String json = objectMapper.writeValueAsString(event);
+            jdbc.query("SELECT pg_notify(?, ?)", rs -> null, channel, json);
+        } catch (Exception e) {
+            // Lokal ist das Event schon zugestellt; andere Knoten holen es beim nächsten Refresh nach
+            log.warn("[EventBus] NOTIFY fehlgeschlagen: {}", e.toString());
+        }
+    }
+
+    @Override
+    public void publishAll(List<TaskBusEvent> events) {
+        if (events.isEmpty()) return;
+        if (events.size() == 1) {
+            publish(events.get(0));
+            return;
+        }
+        try {
+            List<String> json = new ArrayList<>(events.size());
+            for (TaskBusEvent e : events) json.add(objectMapper.writeValueAsString(e));
+            // ein Roundtrip statt eines je Task; Reihenfolge wie im Array (WITH ORDINALITY)
+            jdbc.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "SELECT pg_notify(?, p) FROM unnest(?::text[]) WITH ORDINALITY AS n(p, i) ORDER BY i");
+                ps.setString(1, channel);
+                ps.setArray(2, con.createArrayOf("text", json.toArray()));
+                return ps;
+            }, rs -> null);
+        } catch (Exception e) {
+            log.warn("[EventBus] NOTIFY fehlgeschlagen: {}", e.toString());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<TaskBusEvent> handler) {
+        handlers.add(handler);
+    }
+
+    private void listenLoop() {
+        long delay = 1_000;
+        boolean reconnect = false;
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(dataSource.determineUrl(), listenProperties());
+                 Statement ping = conn.createStatement()) {
+                ping.execute("LISTEN " + channel);
+                PGConnection pg = conn.unwrap(PGConnection.class);
+                if (reconnect) {
+                    log.info("[EventBus] wieder verbunden – Clients laden neu");
+                    dispatch(reset("reconnect"));
+                }
+                delay = 1_000;
+                reconnect = true;
+                while (running) {
+                    PGNotification[] batch = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (batch == null || batch.length == 0) {
+                        // Lebt die Verbindung noch? Toter Socket → SQLException → Reconnect + RESET unten
+                        ping.execute("SELECT 1");
+                        continue;
+                    }
+                    for (PGNotification n : batch) {
+                        handle(n.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+                log.warn("[EventBus] LISTEN-Verbindung verloren, neuer Versuch in {} ms: {}", delay, e.toString());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                delay = Math.min(MAX_RECONNECT_DELAY_MS, delay * 2);
+            }
+        }
+    }
+
+    private Properties listenProperties() {
+        Properties p = new Properties();
+        if (dataSource.determineUsername() != null) p.setProperty("user", dataSource.determineUsername());
+        if (dataSource.determinePassword() != null) p.setProperty("password", dataSource.determinePassword());
+        p.setProperty("tcpKeepAlive", "true");
+        p.setProperty("socketTimeout", String.valueOf(SOCKET_TIMEOUT_SECONDS));
+        p.setProperty("ApplicationName", "task-event-bus");
+        return p;
+    }
+
+    private void handle(String payload) {
+        TaskBusEvent event;
+        try {
+            event = objectMapper.readValue(payload, TaskBusEvent.class);
+        } catch (Exception e) {
+            log.warn("[EventBus] unlesbare Nachricht verworfen: {}", e.toString());
+            return;
+        }
+        dispatch(event);
+    }
+
+    private TaskBusEvent reset(String reason) {
+        return new TaskBusEvent(instanceId + ":" + reason + ":" + System.nanoTime(), "", TaskBusEvent.Type.RESET,
+                null, null, null, null);
+    }
+
+    /** Nur einreihen – der Listen-Thread liest ausschließlich Notifications. */
+    private void dispatch(TaskBusEvent event) {
+        try {
+            dispatcher.execute(() -> deliver(event));
+        } catch (RejectedExecutionException e) {
+            if (!running) return;
+            // Zustellung kommt nicht hinterher: Rückstand verwerfen, Clients laden komplett neu
+            log.warn("[EventBus] {} Events im Rückstand – verworfen, Clients laden neu", dispatcher.getQueue().size());
+            dispatcher.getQueue().clear();
+            dispatcher.execute(() -> deliver(reset("overflow")));
+        }
+    }
+
+    private void deliver(TaskBusEvent event) {
+        for (Consumer<TaskBusEvent> h : handlers) {
+            try {
+                h.accept(event);
+            } catch (RuntimeException e) {
+                log.warn("[EventBus] Handler fehlgeschlagen: {}", e.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.pp.taskmanagementbackend.events;
+
+import java.util.Set;
+
+/**
+ * Task-Event zwischen Backend-Instanzen (TaskEventBus). Bewusst klein (NOTIFY-Payload max. 8 KB):
+ * nur Kennung, Task-ID, Version und betroffene Stationen/Status – den Inhalt lädt der Empfänger selbst.
+ *
+ * @param id       eindeutig je Event (origin:laufende Nummer), für die Duplikaterkennung
+ * @param origin   Instanz, die das Event erzeugt hat
+ * @param version  Task-Version nach der Änderung (nur SAVED), für die Reihenfolge
+ */
+public record TaskBusEvent(String id, String origin, Type type, Long taskId, Integer version,
+                           Set<String> stations, Set<String> statuses) {
+
+    public enum Type { SAVED, DELETED, RESET }
+
+    public TaskEventScope scope() {
+        return new TaskEventScope(stations, statuses);
+    }
+}
@@ -0,0 +1,21 @@
+package com.pp.taskmanagementbackend.events;
+
+import com.pp.taskmanagementbackend.model.Task;
+
+/**
+ * Empfänger für Task-Änderungen mit Inhalt (z. B. WebSocket-Delta-Frames).
+ * Aufruf durch TaskEventPublisher nach dem Commit, die Entities tragen dann die neue Version.
+ */
+public interface TaskChangeListener {
+
+    /**
+     * scope = betroffene Stationen/Status (alter und neuer Stand). Bei Events anderer Instanzen kommt
+     * er aus dem Event – die frisch geladene Entity kennt nur noch den neuen Stand.
+     */
+    void taskSaved(Task task, TaskEventScope scope);
+
+    void taskDeleted(Long taskId);
+
+    /** Viele/unbekannte Änderungen (Archivierung) – Clients sollen neu laden. */
+    void tasksReset();
+}
@@ -0,0 +1,21 @@
+package com.pp.taskmanagementbackend.events;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Verteilt Task-Events zwischen Backend-Instanzen (YAML: events.bus).
+ * Implementierungen liefern auch die eigenen Events wieder aus; Duplikate und Reihenfolge
+ * behandelt TaskEventRelay.
+ */
+public interface TaskEventBus {
+
+    void publish(TaskBusEvent event);
+
+    /** Mehrere Events eines Commits (Sortierung); Implementierungen dürfen sie in einem Rutsch senden. */
+    default void publishAll(List<TaskBusEvent> events) {
+        events.forEach(this::publish);
+    }
+
+    void subscribe(Consumer<TaskBusEvent> handler);
+}
@@ -1,34 +1,394 @@
 package com.pp.taskmanagementbackend.events;
 
+import com.pp.taskmanagementbackend.config.EventBusProperties;
+import com.pp.taskmanagementbackend.config.SseProperties;
+import com.pp.taskmanagementbackend.config.VirtualThreadsConfig;
+import com.pp.taskmanagementbackend.model.Task;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+/**
+ * SSE-Verteiler für /api/tasks/stream.
+ * - Heartbeat-Kommentar alle sse.heartbeat-interval-ms: hält Proxys offen und deckt halb-offene
+ *   Verbindungen (schlafende Tablets) auf, auch wenn tagelang kein Task-Event kommt
+ * - Fehlgeschlagene oder hängende Sends (länger als sse.send-timeout-ms) → Client wird entfernt
+ * - Höchstens sse.max-subscribers gleichzeitige Streams
+ * - Filter je Stream (?station=…&status=…): Subscriber sind nach Station indexiert, ein Event
+ *   weckt nur die Streams der betroffenen Stationen (plus die ungefilterten); der Status-Filter
+ *   wird danach auf dieser kleinen Menge geprüft
+ * - SSE-Events und TaskChangeListener (WebSocket) erst nach dem Commit – wer darauf neu lädt, sieht den neuen Stand
+ * - Nach dem Commit geht jedes Event auch auf den TaskEventBus (andere Instanzen);
+ *   deren Events kommen über TaskEventRelay → applyRemote() herein
+ */
 @Component
 public class TaskEventPublisher {
-    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private static final Logger log = LoggerFactory.getLogger(TaskEventPublisher.class);
 
+    /**
+     * Ein verbundener Client; sendStartedNanos = 0 heißt: gerade kein Schreibvorgang.
+     * stations/statuses = null → kein Filter (normalisiert wie TaskEventScope).
+     */
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Set<String> stations;
+        final Set<String> statuses;
+        final AtomicLong sendStartedNanos = new AtomicLong();
+
+        Subscriber(SseEmitter emitter, Set<String> stations, Set<String> statuses) {
+            this.emitter = emitter;
+            this.stations = stations;
+            this.statuses = statuses;
+        }
+
+        boolean acceptsStatus(Set<String> eventStatuses) {
+            if (statuses == null || eventStatuses == null) return true;
+            for (String s : eventStatuses) {
+                if (statuses.contains(s)) return true;
+            }
+            return false;
+        }
+    }
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    /** Station → Streams mit diesem Stationsfilter. */
+    private final ConcurrentHashMap<String, Set<Subscriber>> byStation = new ConcurrentHashMap<>();
+    /** Streams ohne Stationsfilter (Board, Dashboards). */
+    private final Set<Subscriber> allStations = ConcurrentHashMap.newKeySet();
+    /** Virtual Threads: je Empfänger parallel; sonst synchron (siehe VirtualThreadsConfig). */
+    private final Executor sendExecutor;
+    private final SseProperties props;
+    private final AtomicLong evicted = new AtomicLong();
+    /** Lazy, weil Listener (WebSocket-Handler) selbst wieder Services mit diesem Publisher brauchen. */
+    private final ObjectProvider<TaskChangeListener> changeListeners;
+    private final Supplier<SseEmitter> emitterFactory;
+    private final TaskEventBus bus;
+    private final String instanceId;
+    private final AtomicLong busSeq = new AtomicLong();
+
+    /** Heartbeat-Runde läuft hier, damit ein hängender Socket nicht den Scheduler-Thread blockiert. */
+    private final ExecutorService heartbeatWorker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "sse-heartbeat");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean heartbeatQueued = new AtomicBoolean();
+    /**
+     * SseEmitter.complete() wartet auf den Monitor eines laufenden send() – bei einem hängenden
+     * Socket bis zu dessen Timeout. Darum schließen wir hier und nie auf Scheduler-/Heartbeat-Thread.
+     */
+    private final ExecutorService closeWorker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "sse-close");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Autowired
+    public TaskEventPublisher(VirtualThreadsConfig threads, SseProperties props,
+                              ObjectProvider<TaskChangeListener> changeListeners,
+                              TaskEventBus bus, EventBusProperties busProps) {
+        this(threads, props, changeListeners, bus, busProps, () -> new SseEmitter(0L)); // no timeout
+    }
+
+    /**
+     * Wie oben, aber mit eigener Emitter-Erzeugung (Benchmarks: Emitter, die ohne Netzwerk
+     * formatieren und verwerfen).
+     */
+    public TaskEventPublisher(VirtualThreadsConfig threads, SseProperties props,
+                              ObjectProvider<TaskChangeListener> changeListeners,
+                              TaskEventBus bus, EventBusProperties busProps,
+                              Supplier<SseEmitter> emitterFactory) {
+        this.sendExecutor = threads.sseSendExecutor();
+        this.props = props;
+        this.changeListeners = changeListeners;
+        this.bus = bus;
+        this.instanceId = busProps.getInstanceId();
+        this.emitterFactory = emitterFactory;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeatWorker.shutdownNow();
+        closeWorker.shutdownNow();
+    }
+
+    /** Stream ohne Filter (alle Events). */
     public SseEmitter register() {
-        SseEmitter emitter = new SseEmitter(0L); // no timeout
-        emitters.add(emitter);
-        emitter.onCompletion(() -> emitters.remove(emitter));
-        emitter.onTimeout(() -> emitters.remove(emitter));
-        emitter.onError(e -> emitters.remove(emitter));
-        try { emitter.send(SseEmitter.event().name("ping").data("ok")); } catch (IOException ignored) {}
+        return register(null, null);
+    }
+
+    /** Stream nur für die angegebenen Stationen/Status (null/leer = kein Filter). */
+    public SseEmitter register(Collection<String> stations, Collection<String> statuses) {
+        if (props.getMaxSubscribers() > 0 && subscribers.size() >= props.getMaxSubscribers()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Zu viele offene Streams");
+        }
+        SseEmitter emitter = emitterFactory.get();
+        Subscriber sub = new Subscriber(emitter, normalizeFilter(stations), normalizeFilter(statuses));
+        subscribers.add(sub);
+        index(sub);
+        emitter.onCompletion(() -> remove(sub));
+        emitter.onTimeout(() -> evict(sub, "timeout"));
+        emitter.onError(e -> evict(sub, "error"));
+        send(sub, SseEmitter.event().name("ping").data("ok"));
         return emitter;
     }
 
-    private void broadcast(String name) {
-        for (SseEmitter emitter : emitters) {
-            try { emitter.send(SseEmitter.event().name(name).data("1")); }
-            catch (IOException e) { emitter.complete(); emitters.remove(emitter); }
+    /** Anzahl aktuell verbundener Streams (Gauge). */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /** Seit dem Start entfernte tote/hängende Clients. */
+    public long getEvictedCount() {
+        return evicted.get();
+    }
+
+    /** Streams, bei denen gerade ein Send läuft (wächst, wenn Tablets nicht mehr abnehmen). */
+    public int getPendingSendCount() {
+        int n = 0;
+        for (Subscriber sub : subscribers) {
+            if (sub.sendStartedNanos.get() != 0) n++;
+        }
+        return n;
+    }
+
+    private void broadcast(String name, TaskEventScope scope) {
+        for (Subscriber sub : recipients(scope)) {
+            sendExecutor.execute(() -> send(sub, SseEmitter.event().name(name).data("1")));
+        }
+    }
+
+    /** Betroffene Streams: ungefilterte + Stationsindex, danach Statusfilter. */
+    private Collection<Subscriber> recipients(TaskEventScope scope) {
+        if (scope.stations() == null) {
+            return scope.statuses() == null ? subscribers
+                    : subscribers.stream().filter(s -> s.acceptsStatus(scope.statuses())).toList();
+        }
+        Set<Subscriber> out = new LinkedHashSet<>();
+        for (Subscriber s : allStations) {
+            if (s.acceptsStatus(scope.statuses())) out.add(s);
+        }
+        for (String station : scope.stations()) {
+            Set<Subscriber> subs = byStation.get(station);
+            if (subs == null) continue;
+            for (Subscriber s : subs) {
+                if (s.acceptsStatus(scope.statuses())) out.add(s);
+            }
+        }
+        return out;
+    }
+
+    private void index(Subscriber sub) {
+        if (sub.stations == null) {
+            allStations.add(sub);
+            return;
+        }
+        for (String station : sub.stations) {
+            // compute statt computeIfAbsent(...).add: sonst Race mit dem Entfernen leerer Sets
+            byStation.compute(station, (k, set) -> {
+                Set<Subscriber> s = set != null ? set : ConcurrentHashMap.newKeySet();
+                s.add(sub);
+                return s;
+            });
+        }
+    }
+
+    private boolean remove(Subscriber sub) {
+        if (!subscribers.remove(sub)) return false;
+        if (sub.stations == null) {
+            allStations.remove(sub);
+        } else {
+            for (String station : sub.stations) {
+                byStation.computeIfPresent(station, (k, set) -> {
+                    set.remove(sub);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> normalizeFilter(Collection<String> values) {
+        if (values == null) return null;
+        Set<String> out = new LinkedHashSet<>();
+        for (String v : values) {
+            String n = TaskEventScope.normalize(v);
+            if (n != null) out.add(n);
+        }
+        return out.isEmpty() ? null : Set.copyOf(out);
+    }
+
+    private void send(Subscriber sub, SseEmitter.SseEventBuilder event) {
+        sub.sendStartedNanos.set(System.nanoTime());
+        try {
+            sub.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            evict(sub, "send");
+        } finally {
+            sub.sendStartedNanos.set(0);
+        }
+    }
+
+    private void evict(Subscriber sub, String reason) {
+        if (!remove(sub)) return;
+        evicted.incrementAndGet();
+        log.debug("[SSE] Client entfernt ({}), verbleibend: {}", reason, subscribers.size());
+        try {
+            closeWorker.execute(() -> {
+                try {
+                    sub.emitter.complete();
+                } catch (RuntimeException ignored) {
+                    // Verbindung ist ohnehin weg
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+            // Herunterfahren: Tomcat schließt die Verbindung selbst
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sse.heartbeat-interval-ms:25000}",
+               initialDelayString = "${sse.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        // Hänger zuerst austragen (nur Listen/Zähler; complete() läuft auf sse-close) – blockiert nicht
+        long limit = TimeUnit.MILLISECONDS.toNanos(Math.max(1, props.getSendTimeoutMs()));
+        long now = System.nanoTime();
+        for (Subscriber sub : subscribers) {
+            long started = sub.sendStartedNanos.get();
+            if (started != 0 && now - started > limit) evict(sub, "send-timeout");
+        }
+        if (subscribers.isEmpty() || !heartbeatQueued.compareAndSet(false, true)) return;
+        heartbeatWorker.execute(() -> {
+            heartbeatQueued.set(false);
+            for (Subscriber sub : subscribers) {
+                if (sub.sendStartedNanos.get() != 0) continue; // Send hängt noch, nicht stapeln
+                sendExecutor.execute(() -> send(sub, SseEmitter.event().comment("hb")));
+            }
+        });
+    }
+
+    /** Nach dem Commit ausführen (bzw. sofort ohne Transaktion). */
+    private static void afterCommit(Runnable run) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    run.run();
+                }
+            });
+        } else {
+            run.run();
         }
     }
 
-    public void onTaskCreated() { broadcast("task-created"); }
-    public void onTaskUpdated() { broadcast("task-updated"); }
-    public void onTaskDeleted() { broadcast("task-deleted"); }
+    private void notifyListeners(Consumer<TaskChangeListener> action) {
+        changeListeners.orderedStream().forEach(l -> {
+            try {
+                action.accept(l);
+            } catch (RuntimeException e) {
+                log.warn("[Events] Listener {} fehlgeschlagen: {}", l.getClass().getSimpleName(), e.toString());
+            }
+        });
+    }
+
+    private void publishToBus(TaskBusEvent.Type type, Long taskId, Integer version, TaskEventScope scope) {
+        bus.publish(busEvent(type, taskId, version, scope));
+    }
+
+    private TaskBusEvent busEvent(TaskBusEvent.Type type, Long taskId, Integer version, TaskEventScope scope) {
+        return new TaskBusEvent(instanceId + ":" + busSeq.incrementAndGet(), instanceId, type, taskId, version,
+                scope.stations(), scope.statuses());
+    }
+
+    private void reset(String name) {
+        afterCommit(() -> {
+            broadcast(name, TaskEventScope.all());
+            notifyListeners(TaskChangeListener::tasksReset);
+            publishToBus(TaskBusEvent.Type.RESET, null, null, TaskEventScope.all());
+        });
+    }
+
+    public void onTaskCreated() { reset("task-created"); }
+    public void onTaskUpdated() { reset("task-updated"); }
+    public void onTaskDeleted() { reset("task-deleted"); }
+
+    public void onTaskSaved(Task task) {
+        onTasksSaved(List.of(task));
+    }
+
+    /** Mehrere Tasks in einem Zug (Sortierung): ein SSE-Event, je Task ein Listener-Aufruf. */
+    public void onTasksSaved(Collection<Task> tasks) {
+        if (tasks.isEmpty()) return;
+        TaskEventScope scope = TaskEventScope.of(tasks);
+        // Scope je Task jetzt festhalten (alter + neuer Stand), Listener und Bus bekommen denselben
+        List<Map.Entry<Task, TaskEventScope>> saved = tasks.stream()
+                .map(t -> Map.entry(t, TaskEventScope.of(t))).toList();
+        afterCommit(() -> {
+            // erst nach dem Commit: Tablets laden auf das Event hin /api/tasks neu
+            broadcast("task-updated", scope);
+            notifyListeners(l -> saved.forEach(e -> l.taskSaved(e.getKey(), e.getValue())));
+            // Version erst nach dem Commit gültig (Flush erhöht sie)
+            bus.publishAll(saved.stream()
+                    .map(e -> busEvent(TaskBusEvent.Type.SAVED, e.getKey().getId(), e.getKey().getVersion(), e.getValue()))
+                    .toList());
+        });
+    }
+
+    public void onTaskDeleted(Task task) {
+        TaskEventScope scope = TaskEventScope.of(task);
+        Long id = task.getId();
+        afterCommit(() -> {
+            broadcast("task-deleted", scope);
+            notifyListeners(l -> l.taskDeleted(id));
+            publishToBus(TaskBusEvent.Type.DELETED, id, null, scope);
+        });
+    }
+
+    /** Event einer anderen Instanz (über TaskEventRelay, Duplikate/Reihenfolge dort geprüft). */
+    void applyRemote(TaskBusEvent e, Task loaded) {
+        switch (e.type()) {
+            case SAVED -> {
+                broadcast("task-updated", e.scope());
+                if (loaded != null) {
+                    notifyListeners(l -> l.taskSaved(loaded, e.scope()));
+                } else {
+                    notifyListeners(l -> l.taskDeleted(e.taskId())); // inzwischen gelöscht
+                }
+            }
+            case DELETED -> {
+                broadcast("task-deleted", e.scope());
+                notifyListeners(l -> l.taskDeleted(e.taskId()));
+            }
+            case RESET -> {
+                broadcast("task-updated", TaskEventScope.all());
+                notifyListeners(TaskChangeListener::tasksReset);
+            }
+        }
+    }
 }
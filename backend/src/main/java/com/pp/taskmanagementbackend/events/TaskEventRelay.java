@@ -0,0 +1,88 @@
+package com.pp.taskmanagementbackend.events;
+
+import com.pp.taskmanagementbackend.config.EventBusProperties;
+import com.pp.taskmanagementbackend.model.Task;
+import com.pp.taskmanagementbackend.repository.TaskRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Empfängt Events vom TaskEventBus und stellt die der anderen Instanzen lokal zu (SSE + WebSocket).
+ * - Duplikate (gleiche Event-ID, z. B. doppelt zugestellt) werden verworfen
+ * - Reihenfolge je Task über die Version: ein Event mit älterer Version als der zuletzt gesehenen
+ *   (lokal oder fremd) wird ignoriert – NOTIFYs verschiedener Knoten können sich überholen
+ * - Eigene Events kommen ebenfalls vorbei und aktualisieren nur den Versionsstand
+ * - onEvent läuft beim Postgres-Bus auf dessen Zustell-Thread (event-bus-dispatch), nie auf dem
+ *   Thread, der LISTEN liest – DB-Lesen und langsame Clients bremsen den Empfang nicht
+ */
+@Component
+public class TaskEventRelay {
+
+    private static final int MAX_RECENT_IDS = 10_000;
+    private static final int MAX_VERSIONS = 50_000;
+
+    private final TaskEventPublisher publisher;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate readTx;
+    private final String instanceId;
+
+    private final ConcurrentHashMap<Long, Integer> versions = new ConcurrentHashMap<>();
+    private final Set<String> recentIds = Collections.synchronizedSet(Collections.newSetFromMap(
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > MAX_RECENT_IDS;
+                }
+            }));
+
+    public TaskEventRelay(TaskEventBus bus, TaskEventPublisher publisher, TaskRepository taskRepository,
+                          PlatformTransactionManager transactionManager, EventBusProperties props) {
+        this.publisher = publisher;
+        this.taskRepository = taskRepository;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.instanceId = props.getInstanceId();
+        bus.subscribe(this::onEvent);
+    }
+
+    void onEvent(TaskBusEvent e) {
+        if (e.id() != null && !recentIds.add(e.id())) return;
+        boolean own = instanceId.equals(e.origin());
+        switch (e.type()) {
+            case SAVED -> {
+                if (!advance(e.taskId(), e.version()) || own) return;
+                Task task = readTx.execute(s -> taskRepository.findById(e.taskId()).orElse(null));
+                publisher.applyRemote(e, task);
+            }
+            case DELETED -> {
+                if (e.taskId() != null) versions.remove(e.taskId());
+                if (!own) publisher.applyRemote(e, null);
+            }
+            case RESET -> {
+                versions.clear();
+                if (!own) publisher.applyRemote(e, null);
+            }
+        }
+    }
+
+    /** true, wenn die Version neuer ist als alles bisher Gesehene für diesen Task. */
+    private boolean advance(Long taskId, Integer version) {
+        if (taskId == null) return false;
+        if (version == null) return true;
+        if (versions.size() >= MAX_VERSIONS) versions.clear();
+        boolean[] newer = new boolean[1];
+        versions.compute(taskId, (id, seen) -> {
+            if (seen != null && version <= seen) return seen;
+            newer[0] = true;
+            return version;
+        });
+        return newer[0];
+    }
+}
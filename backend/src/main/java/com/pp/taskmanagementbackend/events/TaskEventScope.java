@@ -0,0 +1,54 @@
+package com.pp.taskmanagementbackend.events;
+
+import com.pp.taskmanagementbackend.model.Task;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Welche Stationen/Status ein Task-Event betrifft. null = unbekannt/alle (z. B. Archivierung),
+ * dann bekommen alle Streams das Event. Werte sind normalisiert (trim + lowercase).
+ */
+public record TaskEventScope(Set<String> stations, Set<String> statuses) {
+
+    private static final TaskEventScope ALL = new TaskEventScope(null, null);
+
+    public static TaskEventScope all() {
+        return ALL;
+    }
+
+    /** Alter (beim Laden) und neuer Stand des Tasks – ein Verschieben betrifft beide Spalten. */
+    public static TaskEventScope of(Task task) {
+        Set<String> stations = new LinkedHashSet<>();
+        Set<String> statuses = new LinkedHashSet<>();
+        addNormalized(stations, task.getLoadedArbeitsstation());
+        addNormalized(stations, task.getArbeitsstation());
+        addNormalized(statuses, task.getLoadedStatusCode());
+        addNormalized(statuses, task.getStatusCode());
+        return new TaskEventScope(stations, statuses);
+    }
+
+    public static TaskEventScope of(Collection<Task> tasks) {
+        Set<String> stations = new LinkedHashSet<>();
+        Set<String> statuses = new LinkedHashSet<>();
+        for (Task t : tasks) {
+            TaskEventScope s = of(t);
+            stations.addAll(s.stations());
+            statuses.addAll(s.statuses());
+        }
+        return new TaskEventScope(stations, statuses);
+    }
+
+    public static String normalize(String v) {
+        if (v == null) return null;
+        String t = v.trim();
+        return t.isEmpty() ? null : t.toLowerCase(Locale.ROOT);
+    }
+
+    private static void addNormalized(Set<String> target, String v) {
+        String n = normalize(v);
+        if (n != null) target.add(n);
+    }
+}
@@ -8,9 +8,11 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -101,6 +103,36 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
     }
 
+    // 409: PATCH mit veralteter Version und echten Feldkonflikten – aktueller Stand im Body
+    @ExceptionHandler(TaskConflictException.class)
+    public ResponseEntity<TaskConflictError> handleTaskConflict(TaskConflictException ex, HttpServletRequest req) {
+        TaskConflictError body = new TaskConflictError(
+                HttpStatus.CONFLICT.value(),
+                HttpStatus.CONFLICT.getReasonPhrase(),
+                ex.getMessage(),
+                req.getRequestURI()
+        );
+        body.setConflicts(ex.getConflicts());
+        body.setCurrent(ex.getCurrent());
+        HttpHeaders headers = new HttpHeaders();
+        if (ex.getCurrent() != null && ex.getCurrent().getVersion() != null) {
+            headers.setETag("\"" + ex.getCurrent().getVersion() + "\"");
+        }
+        return new ResponseEntity<>(body, headers, HttpStatus.CONFLICT);
+    }
+
+    // 409: Gleichzeitiges Speichern (optimistische Sperre) – statt 500; Client lädt neu und versucht erneut
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleOptimisticLock(ObjectOptimisticLockingFailureException ex, HttpServletRequest req) {
+        ApiError body = new ApiError(
+                HttpStatus.CONFLICT.value(),
+                HttpStatus.CONFLICT.getReasonPhrase(),
+                "Datensatz wurde gleichzeitig geändert, bitte neu laden.",
+                req.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
     // 404: Task nicht gefunden
     @ExceptionHandler(TaskNotFoundException.class)
     public ResponseEntity<ApiError> handleTaskNotFound(TaskNotFoundException ex, HttpServletRequest req) {
@@ -125,6 +157,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
     }
 
+    // 413: Upload zu groß (Multipart-Limit oder attachments.max-upload-size)
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ApiError> handleMaxUploadSize(MaxUploadSizeExceededException ex, HttpServletRequest req) {
+        ApiError body = new ApiError(
+                HttpStatus.PAYLOAD_TOO_LARGE.value(),
+                HttpStatus.PAYLOAD_TOO_LARGE.getReasonPhrase(),
+                ex.getMessage(),
+                req.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(body);
+    }
+
     // 500: Fallback
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleGeneric(Exception ex, HttpServletRequest req) {
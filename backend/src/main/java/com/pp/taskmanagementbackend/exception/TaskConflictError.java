@@ -0,0 +1,22 @@
+package com.pp.taskmanagementbackend.exception;
+
+import com.pp.taskmanagementbackend.api.dto.TaskDto;
+
+import java.util.List;
+
+/** 409-Antwort für Versionskonflikte: ApiError + konfliktbehaftete Felder + aktueller Stand. */
+public class TaskConflictError extends ApiError {
+
+    private List<String> conflicts;
+    private TaskDto current;
+
+    public TaskConflictError(int status, String error, String message, String path) {
+        super(status, error, message, path);
+    }
+
+    public List<String> getConflicts() { return conflicts; }
+    public void setConflicts(List<String> conflicts) { this.conflicts = conflicts; }
+
+    public TaskDto getCurrent() { return current; }
+    public void setCurrent(TaskDto current) { this.current = current; }
+}
@@ -0,0 +1,26 @@
+package com.pp.taskmanagementbackend.exception;
+
+import com.pp.taskmanagementbackend.api.dto.TaskDto;
+
+import java.util.List;
+
+/**
+ * Wird geworfen, wenn ein PATCH mit veralteter Version Felder ändert, die inzwischen auch
+ * jemand anderes geändert hat. Der GlobalExceptionHandler antwortet mit HTTP 409 samt aktuellem Stand.
+ */
+public class TaskConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient TaskDto current;
+    private final List<String> conflicts;
+
+    public TaskConflictException(TaskDto current, List<String> conflicts) {
+        super("Task " + current.getId() + " wurde zwischenzeitlich geändert (Version " + current.getVersion()
+                + "), Konflikt in: " + String.join(", ", conflicts));
+        this.current = current;
+        this.conflicts = List.copyOf(conflicts);
+    }
+
+    public TaskDto getCurrent() { return current; }
+    public List<String> getConflicts() { return conflicts; }
+}
@@ -2,6 +2,7 @@ package com.pp.taskmanagementbackend.mapper;
 
 import com.pp.taskmanagementbackend.api.dto.AttachmentDto;
 import com.pp.taskmanagementbackend.model.Attachment;
+import com.pp.taskmanagementbackend.service.AttachmentPreviewService;
 
 public class AttachmentMapper {
     public static AttachmentDto toDto(Attachment a) {
@@ -10,8 +11,12 @@ public class AttachmentMapper {
         dto.filename = a.getFilename();
         dto.mime = a.getMime();
         dto.size = a.getSize();
+        dto.storedSize = a.getStoredSize() != null ? a.getStoredSize() : a.getSize();
         // Wichtig: relative URL, damit Nginx sie proxyt (same-origin)
         dto.downloadUrl = "/api/tasks/" + a.getTask().getId() + "/attachments/" + a.getId();
+        if (AttachmentPreviewService.isPreviewable(a.getMime())) {
+            dto.thumbnailUrl = dto.downloadUrl + "/thumb";
+        }
         return dto;
     }
 }
\ No newline at end of file
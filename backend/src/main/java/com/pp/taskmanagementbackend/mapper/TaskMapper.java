@@ -33,6 +33,7 @@ public class TaskMapper {
         dto.setPrioritaet(t.getPrioritaet());
         dto.setFai(t.isFai());
         dto.setQs(t.isQs());
+        dto.setVersion(t.getVersion());
 
         // --- Zusatzarbeiten-Parsing (bereits vorhanden) ---
         {
@@ -0,0 +1,82 @@
+package com.pp.taskmanagementbackend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Archivierter (finaler) Task aus "tasks_archive".
+ * Wird nur von der DB-Funktion archive_finished_tasks() befüllt; hier nur lesend.
+ */
+@Entity
+@Table(name = "tasks_archive")
+@org.hibernate.annotations.Immutable
+public class ArchivedTask {
+    @Id private Long id;
+    @Column(nullable=false) private String bezeichnung;
+    private String teilenummer; private String kunde;
+    @Column(name="zustaendig") private String zuständig;
+    @Column(name="zusaetzliche_infos", length=2048) private String zusätzlicheInfos;
+    @Column(name="end_datum") private LocalDate endDatum;
+    @Column(name="aufwand_stunden") private Double aufwandStunden;
+    @Column(name="arbeitsstation") private String arbeitsstation;
+    @Enumerated(EnumType.STRING) private TaskStatus status;
+    @Column private Integer prioritaet;
+    @Column(name="fai", nullable=false) private boolean fai;
+    @Column(name="qs",  nullable=false) private boolean qs;
+    @Column(name="stk") private Integer stk;
+    @Column(name="fa")  private String fa;
+    @Column(name="dateipfad", length=512) private String dateipfad;
+    @Column(name = "version", nullable = false) private Integer version;
+    @Column(name = "status_code", nullable = false, length = 64) private String statusCode;
+    @Column(name = "additional_works") private String additionalWorks;
+    @Column(name = "finished_at") private LocalDateTime finishedAt;
+    @Column(name = "archived_at", nullable = false) private LocalDateTime archivedAt;
+
+    public Long getId(){return id;}
+    public String getBezeichnung(){return bezeichnung;}
+    public String getTeilenummer(){return teilenummer;}
+    public String getKunde(){return kunde;}
+    public String getZuständig(){return zuständig;}
+    public String getZusätzlicheInfos(){return zusätzlicheInfos;}
+    public LocalDate getEndDatum(){return endDatum;}
+    public Double getAufwandStunden(){return aufwandStunden;}
+    public String getArbeitsstation(){return arbeitsstation;}
+    public TaskStatus getStatus(){return status;}
+    public Integer getPrioritaet(){return prioritaet;}
+    public boolean isFai(){return fai;}
+    public boolean isQs(){return qs;}
+    public Integer getStk(){ return stk; }
+    public String getFa(){ return fa; }
+    public String getDateipfad(){ return dateipfad; }
+    public Integer getVersion(){ return version; }
+    public String getStatusCode(){ return statusCode; }
+    public String getAdditionalWorks(){ return additionalWorks; }
+    public LocalDateTime getFinishedAt(){ return finishedAt; }
+    public LocalDateTime getArchivedAt(){ return archivedAt; }
+
+    /** Transiente Task-Kopie, damit der bestehende TaskMapper wiederverwendet werden kann. */
+    public Task toTask() {
+        Task t = new Task();
+        t.setId(id);
+        t.setBezeichnung(bezeichnung);
+        t.setTeilenummer(teilenummer);
+        t.setKunde(kunde);
+        t.setZuständig(zuständig);
+        t.setZusätzlicheInfos(zusätzlicheInfos);
+        t.setEndDatum(endDatum);
+        t.setAufwandStunden(aufwandStunden);
+        t.setArbeitsstation(arbeitsstation);
+        t.setStatus(status);
+        t.setPrioritaet(prioritaet);
+        t.setFai(fai);
+        t.setQs(qs);
+        t.setStk(stk);
+        t.setFa(fa);
+        t.setDateipfad(dateipfad);
+        t.setVersion(version);
+        t.setStatusCode(statusCode);
+        t.setAdditionalWorks(additionalWorks);
+        return t;
+    }
+}
@@ -20,10 +20,20 @@ public class Attachment {
     @Column(nullable = false, length = 255)
     private String mime;
 
+    /** Originalgröße in Bytes (wie hochgeladen). */
     @Column(nullable = false)
     private long size;
 
-    @Column(nullable = false, unique = true, length = 200)
+    /** Größe auf Platte (null = Altbestand, entspricht size). */
+    @Column(name = "stored_size")
+    private Long storedSize;
+
+    /** gzip oder null (unkomprimiert abgelegt). */
+    @Column(name = "content_encoding", length = 16)
+    private String contentEncoding;
+
+    /** Blob-Key im Attachment-Verzeichnis; bei content-addressed = SHA-256, mehrfach referenzierbar. */
+    @Column(nullable = false, length = 200)
     private String storageKey;
 
     @Column(nullable = false)
@@ -38,6 +48,10 @@ public class Attachment {
     public void setMime(String mime) { this.mime = mime; }
     public long getSize() { return size; }
     public void setSize(long size) { this.size = size; }
+    public Long getStoredSize() { return storedSize; }
+    public void setStoredSize(Long storedSize) { this.storedSize = storedSize; }
+    public String getContentEncoding() { return contentEncoding; }
+    public void setContentEncoding(String contentEncoding) { this.contentEncoding = contentEncoding; }
     public String getStorageKey() { return storageKey; }
     public void setStorageKey(String storageKey) { this.storageKey = storageKey; }
     public Instant getCreatedAt() { return createdAt; }
@@ -0,0 +1,50 @@
+package com.pp.taskmanagementbackend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Ausstehende Löschung eines Attachment-Blobs (Tabelle "attachment_blob_deletions").
+ *
+ * Wird transaktional mit dem Löschen der attachments-Zeilen angelegt; der
+ * AttachmentCleanupService löscht die Datei erst nach dem Commit und nur, wenn
+ * keine Zeile den Key mehr referenziert. Fehlschläge werden mit Backoff wiederholt.
+ */
+@Entity
+@Table(name = "attachment_blob_deletions")
+public class BlobDeletion {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "storage_key", nullable = false, length = 200)
+    private String storageKey;
+
+    @Column(name = "enqueued_at", nullable = false)
+    private LocalDateTime enqueuedAt = LocalDateTime.now();
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    protected BlobDeletion() {}
+
+    public BlobDeletion(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    public Long getId() { return id; }
+    public String getStorageKey() { return storageKey; }
+    public LocalDateTime getEnqueuedAt() { return enqueuedAt; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
@@ -0,0 +1,45 @@
+package com.pp.taskmanagementbackend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Ein Ordner im Index des FolderPicker-Shares (Tabelle "fs_folders").
+ * Pfade sind relativ zu folderpicker.base-path und '/'-getrennt.
+ */
+@Entity
+@Table(name = "fs_folders")
+public class FsFolder {
+
+    @Id
+    @Column(nullable = false)
+    private String path;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String parent;
+
+    @Column(nullable = false)
+    private int depth;
+
+    @Column(name = "mtime_ms", nullable = false)
+    private long mtimeMs;
+
+    protected FsFolder() {}
+
+    public FsFolder(String path, String name, String parent, int depth, long mtimeMs) {
+        this.path = path;
+        this.name = name;
+        this.parent = parent;
+        this.depth = depth;
+        this.mtimeMs = mtimeMs;
+    }
+
+    public String getPath() { return path; }
+    public String getName() { return name; }
+    public String getParent() { return parent; }
+    public int getDepth() { return depth; }
+    public long getMtimeMs() { return mtimeMs; }
+    public void setMtimeMs(long mtimeMs) { this.mtimeMs = mtimeMs; }
+}
@@ -0,0 +1,69 @@
+package com.pp.taskmanagementbackend.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Materialisierte Tageslast je Arbeitsstation (Tabelle "station_day_load").
+ *
+ * Nur lesend: die Zeilen werden ausschließlich von DB-Triggern auf "tasks"
+ * gepflegt (siehe Migration V20261019_01). Stunden sind am endDatum gebucht,
+ * finale Status (task_statuses.is_final) sind bereits herausgefiltert.
+ */
+@Entity
+@Table(name = "station_day_load")
+@IdClass(StationDayLoad.Key.class)
+@org.hibernate.annotations.Immutable
+public class StationDayLoad {
+
+    @Id
+    @Column(name = "station", nullable = false)
+    private String station;
+
+    @Id
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "hours", nullable = false)
+    private BigDecimal hours;
+
+    @Column(name = "task_count", nullable = false)
+    private int taskCount;
+
+    public String getStation() { return station; }
+    public LocalDate getDay() { return day; }
+    public BigDecimal getHours() { return hours; }
+    public int getTaskCount() { return taskCount; }
+
+    /** Zusammengesetzter Schlüssel (station, day). */
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String station;
+        private LocalDate day;
+
+        public Key() {
+        }
+
+        public Key(String station, LocalDate day) {
+            this.station = station;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return Objects.equals(station, that.station) && Objects.equals(day, that.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(station, day);
+        }
+    }
+}
@@ -24,7 +24,13 @@ public class Task {
     @Version @Column(name = "version", nullable = false) private Integer version = 0;
     @Column(name = "status_code", nullable = false, length = 64) private String statusCode;
     @Column(name = "additional_works") private String additionalWorks;
-    
+
+    // Stand beim Laden: bei Stationswechsel/Statuswechsel bekommen alte UND neue Spalte das SSE-Event
+    @Transient private String loadedArbeitsstation;
+    @Transient private String loadedStatusCode;
+    @PostLoad void rememberLoadedScope(){ loadedArbeitsstation = arbeitsstation; loadedStatusCode = statusCode; }
+    public String getLoadedArbeitsstation(){ return loadedArbeitsstation; }
+    public String getLoadedStatusCode(){ return loadedStatusCode; }
 
     public Long getId(){return id;} public void setId(Long id){this.id=id;}
     public String getBezeichnung(){return bezeichnung;} public void setBezeichnung(String v){this.bezeichnung=v;}
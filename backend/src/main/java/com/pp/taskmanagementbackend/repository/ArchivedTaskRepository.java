@@ -0,0 +1,27 @@
+package com.pp.taskmanagementbackend.repository;
+
+import com.pp.taskmanagementbackend.model.ArchivedTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    /** Zuletzt archivierte zuerst */
+    List<ArchivedTask> findAllByOrderByArchivedAtDescIdDesc(Pageable page);
+
+    /** Zuletzt archivierte einer Station zuerst */
+    List<ArchivedTask> findAllByArbeitsstationOrderByArchivedAtDescIdDesc(String arbeitsstation, Pageable page);
+
+    /**
+     * Verschiebt bis zu 'batchSize' finale Tasks, die länger als 'retentionDays' final sind,
+     * nach tasks_archive (DB-Funktion, eigene Transaktion). Rückgabe: Anzahl verschobener Tasks.
+     */
+    @Transactional
+    @Query(value = "SELECT archive_finished_tasks(:retentionDays, :batchSize)", nativeQuery = true)
+    int archiveFinishedTasks(@Param("retentionDays") int retentionDays, @Param("batchSize") int batchSize);
+}
@@ -3,7 +3,10 @@ package com.pp.taskmanagementbackend.repository;
 import com.pp.taskmanagementbackend.model.Attachment;
 import com.pp.taskmanagementbackend.model.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +14,64 @@ public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
     List<Attachment> findByTask(Task task);
     Optional<Attachment> findByIdAndTaskId(Long id, Long taskId);
     long countByTaskId(Long taskId);
+
+    /** Metadaten mehrerer Tasks in einer Query (Board), sortiert nach Task und Upload-Reihenfolge. */
+    @Query("select a from Attachment a where a.task.id in :taskIds order by a.task.id, a.id")
+    List<Attachment> findByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    /** Metadaten aller Tasks einer Arbeitsstation in einer Query. */
+    @Query("select a from Attachment a join a.task t where t.arbeitsstation = :station order by t.id, a.id")
+    List<Attachment> findByStation(@Param("station") String station);
+
+    /** Anzahl je Task (statt countByTaskId je Karte). */
+    interface TaskAttachmentCount {
+        Long getTaskId();
+        long getCount();
+    }
+
+    @Query("select a.task.id as taskId, count(a) as count from Attachment a group by a.task.id")
+    List<TaskAttachmentCount> countGroupedByTask();
+
+    /** Referenzzähler eines Blobs: Zeilen in attachments + attachments_archive mit diesem Key. */
+    @Query(value = """
+            SELECT (SELECT count(*) FROM attachments WHERE storage_key = :key)
+                 + (SELECT count(*) FROM attachments_archive WHERE storage_key = :key)
+            """, nativeQuery = true)
+    long countReferences(@Param("key") String storageKey);
+
+    /** Alle referenzierten Storage-Keys (aktiv + archiviert), für den Orphan-Sweeper. */
+    @Query(value = "SELECT storage_key FROM attachments UNION SELECT storage_key FROM attachments_archive", nativeQuery = true)
+    List<String> findAllReferencedKeys();
+
+    /** Speicherbilanz: Referenzen vs. physische Blobs (je storage_key einmal), Original- vs. Plattengröße. */
+    interface StorageStats {
+        long getAttachments();
+        long getLogicalBytes();
+        long getBlobs();
+        long getOriginalBytes();
+        long getStoredBytes();
+    }
+
+    @Query(value = """
+            WITH refs AS (
+                SELECT storage_key, size, COALESCE(stored_size, size) AS stored_size FROM attachments
+                UNION ALL
+                SELECT storage_key, size, COALESCE(stored_size, size) AS stored_size FROM attachments_archive
+            ), blobs AS (
+                SELECT DISTINCT ON (storage_key) size, stored_size FROM refs ORDER BY storage_key
+            )
+            SELECT (SELECT count(*) FROM refs)                  AS "attachments",
+                   (SELECT COALESCE(sum(size), 0) FROM refs)    AS "logicalBytes",
+                   (SELECT count(*) FROM blobs)                 AS "blobs",
+                   (SELECT COALESCE(sum(size), 0) FROM blobs)   AS "originalBytes",
+                   (SELECT COALESCE(sum(stored_size), 0) FROM blobs) AS "storedBytes"
+            """, nativeQuery = true)
+    StorageStats storageStats();
+
+    /**
+     * Transaktionsweite Sperre je Storage-Key (pg_advisory_xact_lock), damit "Blob existiert schon"
+     * beim Upload und "letzte Referenz weg → Blob löschen" nicht verschränkt laufen.
+     */
+    @Query(value = "SELECT count(*) FROM (SELECT pg_advisory_xact_lock(hashtext(:key))) l", nativeQuery = true)
+    long lockStorageKey(@Param("key") String storageKey);
 }
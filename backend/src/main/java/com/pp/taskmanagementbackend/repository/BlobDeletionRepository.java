@@ -0,0 +1,28 @@
+package com.pp.taskmanagementbackend.repository;
+
+import com.pp.taskmanagementbackend.model.BlobDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface BlobDeletionRepository extends JpaRepository<BlobDeletion, Long> {
+
+    /** IDs fälliger Einträge (ohne Sperre; jeder Eintrag wird danach einzeln gesperrt). */
+    @Query(value = """
+            SELECT id FROM attachment_blob_deletions
+             WHERE next_attempt_at <= now()
+             ORDER BY next_attempt_at, id
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findDueIds(@Param("limit") int limit);
+
+    /** Eintrag sperren; bearbeitet ihn gerade eine andere Instanz, kommt nichts zurück. */
+    @Query(value = "SELECT * FROM attachment_blob_deletions WHERE id = :id FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<BlobDeletion> lockById(@Param("id") Long id);
+
+    @Query(value = "SELECT count(*) FROM attachment_blob_deletions WHERE storage_key = :key", nativeQuery = true)
+    long countByKey(@Param("key") String storageKey);
+}
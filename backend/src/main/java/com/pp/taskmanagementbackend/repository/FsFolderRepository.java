@@ -0,0 +1,30 @@
+package com.pp.taskmanagementbackend.repository;
+
+import com.pp.taskmanagementbackend.model.FsFolder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface FsFolderRepository extends JpaRepository<FsFolder, String> {
+
+    /** Direkte Kinder eines Ordners ('' = Basis). */
+    @Query("select f.path from FsFolder f where f.parent = :parent")
+    List<String> findPathsByParent(@Param("parent") String parent);
+
+    /**
+     * Teilstring-Suche über den Pfad (Trigramm-Index). Ordner, deren Name mit dem Begriff
+     * beginnt, zuerst; danach flachere Ordner.
+     */
+    @Query(value = """
+            SELECT f.path
+              FROM fs_folders f
+             WHERE f.path ILIKE :like ESCAPE '\\'
+             ORDER BY (f.name ILIKE :prefix ESCAPE '\\') DESC, f.depth, f.path
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<String> search(@Param("like") String like,
+                        @Param("prefix") String prefix,
+                        @Param("limit") int limit);
+}
@@ -0,0 +1,13 @@
+package com.pp.taskmanagementbackend.repository;
+
+import com.pp.taskmanagementbackend.model.StationDayLoad;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface StationDayLoadRepository extends JpaRepository<StationDayLoad, StationDayLoad.Key> {
+
+    /** Alle Tageslasten bis einschließlich 'to' (ältere = Carry-In), Index-Range über day */
+    List<StationDayLoad> findAllByDayLessThanEqual(LocalDate to);
+}
@@ -2,9 +2,55 @@ package com.pp.taskmanagementbackend.repository;
 
 import com.pp.taskmanagementbackend.model.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findAllByArbeitsstationOrderByPrioritaetAscIdAsc(String arbeitsstation);
+
+    /** Schlanke Projektion für den Suggest-Index (nur id/teilenummer/fa). */
+    interface TaskSuggestView {
+        Long getId();
+        String getTeilenummer();
+        String getFa();
+    }
+
+    List<TaskSuggestView> findAllSuggestViewsBy();
+
+    /**
+     * Gerankte Suche: Volltext (search_tsv, Präfix-tsquery) ODER Teilstring/Ähnlichkeit
+     * (pg_trgm) auf bezeichnung, teilenummer, kunde, fa. Alle Prädikate sind GIN-indiziert.
+     *
+     * @param tsQuery  fertige tsquery im 'simple'-Format, z. B. "tn:* & 1001:*"
+     * @param raw      Original-Suchbegriff (getrimmt) für Trigramm-Ähnlichkeit
+     * @param like     ILIKE-Pattern, z. B. "%tn-1001%"
+     */
+    @Query(value = """
+            SELECT t.* FROM tasks t
+             WHERE t.search_tsv @@ to_tsquery('simple', :tsQuery)
+                OR t.teilenummer ILIKE :like
+                OR t.fa          ILIKE :like
+                OR t.kunde       ILIKE :like
+                OR t.bezeichnung ILIKE :like
+                OR t.teilenummer % :raw
+                OR t.kunde       % :raw
+                OR t.bezeichnung % :raw
+             ORDER BY
+                (CASE WHEN lower(t.teilenummer) = lower(:raw) OR lower(t.fa) = lower(:raw) THEN 1 ELSE 0 END) DESC,
+                GREATEST(
+                    ts_rank(t.search_tsv, to_tsquery('simple', :tsQuery)),
+                    similarity(coalesce(t.teilenummer, ''), :raw),
+                    similarity(coalesce(t.fa, ''), :raw),
+                    similarity(coalesce(t.kunde, ''), :raw),
+                    similarity(t.bezeichnung, :raw)
+                ) DESC,
+                t.id DESC
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<Task> search(@Param("tsQuery") String tsQuery,
+                      @Param("raw") String raw,
+                      @Param("like") String like,
+                      @Param("limit") int limit);
 }
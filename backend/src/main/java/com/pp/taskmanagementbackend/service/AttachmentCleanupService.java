@@ -0,0 +1,238 @@
+package com.pp.taskmanagementbackend.service;
+
+import com.pp.taskmanagementbackend.config.StorageProperties;
+import com.pp.taskmanagementbackend.model.BlobDeletion;
+import com.pp.taskmanagementbackend.repository.AttachmentRepository;
+import com.pp.taskmanagementbackend.repository.BlobDeletionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Asynchrones, transaktionssicheres Aufräumen von Attachment-Blobs.
+ * - enqueue(): schreibt Outbox-Zeilen (attachment_blob_deletions) in der Transaktion des Aufrufers;
+ *   bei Rollback verschwinden sie mit, es wird also nie eine noch referenzierte Datei gelöscht.
+ * - Nach dem Commit (und periodisch) arbeitet ein Worker die Outbox ab: je Eintrag Advisory-Lock auf
+ *   den Key, Referenzen (attachments + attachments_archive) zählen, nur bei 0 Datei + Thumbnail löschen.
+ *   Fehlschläge → Backoff, nach max-attempts verworfen (der Sweeper findet die Datei wieder).
+ * - Sweeper: gleicht das Verzeichnis mit storage_key ab; verwaiste Blobs wandern in die Outbox,
+ *   liegengebliebene Upload-Temp-Dateien werden gelöscht.
+ */
+@Service
+public class AttachmentCleanupService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttachmentCleanupService.class);
+
+    private static final int BATCH_SIZE = 100;
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+
+    private final BlobDeletionRepository outbox;
+    private final AttachmentRepository attachments;
+    private final AttachmentStorageService storage;
+    private final TransactionTemplate tx;
+    private final StorageProperties.Cleanup props;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "attachment-cleanup");
+        t.setDaemon(true);
+        return t;
+    });
+    /** Verhindert, dass sich Anstöße stauen: höchstens ein Lauf wartet. */
+    private final AtomicBoolean runQueued = new AtomicBoolean();
+
+    public AttachmentCleanupService(BlobDeletionRepository outbox,
+                                    AttachmentRepository attachments,
+                                    AttachmentStorageService storage,
+                                    PlatformTransactionManager transactionManager,
+                                    StorageProperties props) {
+        this.outbox = outbox;
+        this.attachments = attachments;
+        this.storage = storage;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.props = props.getAttachments().getCleanup();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Blobs zum Löschen vormerken (in der laufenden Transaktion). Der Worker wird nach dem Commit angestoßen.
+     */
+    @Transactional
+    public void enqueue(Collection<String> storageKeys) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String k : storageKeys) {
+            if (k != null && !k.isBlank()) keys.add(k);
+        }
+        if (keys.isEmpty()) return;
+        outbox.saveAll(keys.stream().map(BlobDeletion::new).toList());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        }
+    }
+
+    /** Worker anstoßen (nicht blockierend). */
+    public void wakeUp() {
+        if (runQueued.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                runQueued.set(false);
+                processDue();
+            });
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        wakeUp(); // Reste aus dem letzten Lauf
+    }
+
+    @Scheduled(fixedDelayString = "${attachments.cleanup.poll-interval-ms:30000}",
+               initialDelayString = "${attachments.cleanup.poll-interval-ms:30000}")
+    public void scheduledPoll() {
+        wakeUp();
+    }
+
+    /** Arbeitet alle fälligen Outbox-Einträge ab (je Eintrag eine eigene Transaktion). Rückgabe: gelöschte Dateien. */
+    public int processDue() {
+        int deletedFiles = 0;
+        try {
+            List<Long> ids;
+            do {
+                ids = outbox.findDueIds(BATCH_SIZE);
+                for (Long id : ids) {
+                    Boolean deleted = tx.execute(status -> processOne(id));
+                    if (Boolean.TRUE.equals(deleted)) deletedFiles++;
+                }
+            } while (ids.size() >= BATCH_SIZE);
+        } catch (Exception ex) {
+            log.error("[Attachments] Cleanup-Lauf fehlgeschlagen: {}", ex.toString(), ex);
+        }
+        if (deletedFiles > 0) {
+            log.info("[Attachments] Cleanup: {} Blob(s) gelöscht", deletedFiles);
+        }
+        return deletedFiles;
+    }
+
+    private boolean processOne(Long id) {
+        BlobDeletion d = outbox.lockById(id).orElse(null);
+        if (d == null) return false; // erledigt oder von anderer Instanz gesperrt
+
+        String key = d.getStorageKey();
+        attachments.lockStorageKey(key);
+        if (attachments.countReferences(key) > 0) {
+            // wieder referenziert (Dedupe-Treffer nach dem Löschen) → Datei bleibt
+            outbox.delete(d);
+            return false;
+        }
+        try {
+            storage.delete(key);
+            outbox.delete(d);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            int attempts = d.getAttempts() + 1;
+            if (attempts >= Math.max(1, props.getMaxAttempts())) {
+                log.error("[Attachments] Blob {} nach {} Versuchen nicht löschbar, aufgegeben: {}", key, attempts, e.toString());
+                outbox.delete(d);
+                return false;
+            }
+            long backoff = Math.min(MAX_BACKOFF_SECONDS, 1L << Math.min(attempts + 2, 20));
+            d.setAttempts(attempts);
+            d.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoff));
+            d.setLastError(e.toString());
+            log.warn("[Attachments] Blob {} nicht löschbar (Versuch {}), erneut in {}s: {}", key, attempts, backoff, e.toString());
+            return false;
+        }
+    }
+
+    /** Ergebnis eines Sweeper-Laufs. */
+    public record SweepResult(int files, int orphansQueued, int staleTempsDeleted, int missingBlobs) {}
+
+    @Scheduled(cron = "${attachments.cleanup.sweep-cron:0 15 3 * * *}")
+    public void scheduledSweep() {
+        if (!props.isSweepEnabled()) return;
+        try {
+            sweep();
+        } catch (Exception ex) {
+            log.error("[Attachments] Orphan-Sweep fehlgeschlagen: {}", ex.toString(), ex);
+        }
+    }
+
+    /**
+     * Gleicht das Attachment-Verzeichnis mit den storage_keys ab.
+     * Dateien jünger als orphan-grace bleiben unberührt (Blob wird vor dem DB-Commit verschoben).
+     */
+    public SweepResult sweep() throws IOException {
+        Instant cutoff = Instant.now().minus(props.getOrphanGrace() != null ? props.getOrphanGrace() : Duration.ofHours(6));
+        Set<String> referenced = new HashSet<>(attachments.findAllReferencedKeys());
+        List<AttachmentStorageService.StoredFile> files = storage.listFiles();
+
+        Set<String> orphans = new LinkedHashSet<>();
+        Set<String> presentBlobs = new HashSet<>();
+        int staleTemps = 0;
+        for (AttachmentStorageService.StoredFile f : files) {
+            switch (f.kind()) {
+                case BLOB -> {
+                    presentBlobs.add(f.key());
+                    if (!referenced.contains(f.key()) && f.modified().isBefore(cutoff)) orphans.add(f.key());
+                }
+                case THUMBNAIL -> {
+                    // Thumbnail ohne Referenz: storage.delete() im Worker entfernt es mit
+                    if (!referenced.contains(f.key()) && f.modified().isBefore(cutoff)) orphans.add(f.key());
+                }
+                case TEMP -> {
+                    if (f.modified().isBefore(cutoff) && Files.deleteIfExists(f.path())) staleTemps++;
+                }
+                case OTHER -> { /* fremde Dateien nicht anfassen */ }
+            }
+        }
+        // Bereits vorgemerkte nicht doppelt eintragen
+        orphans.removeIf(k -> outbox.countByKey(k) > 0);
+        if (!orphans.isEmpty()) {
+            tx.executeWithoutResult(status -> enqueue(orphans));
+        }
+
+        int missing = 0;
+        for (String key : referenced) {
+            if (!presentBlobs.contains(key)) missing++;
+        }
+        if (missing > 0) {
+            log.warn("[Attachments] {} referenzierte Blob(s) fehlen im Verzeichnis", missing);
+        }
+        log.info("[Attachments] Orphan-Sweep: files={} orphansQueued={} staleTempsDeleted={} missingBlobs={}",
+                files.size(), orphans.size(), staleTemps, missing);
+        return new SweepResult(files.size(), orphans.size(), staleTemps, missing);
+    }
+}
@@ -0,0 +1,267 @@
+package com.pp.taskmanagementbackend.service;
+
+import com.pp.taskmanagementbackend.config.StorageProperties;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vorschaubilder (JPEG) für Bild- und PDF-Attachments.
+ * - Erzeugung im Hintergrund auf einem kleinen, begrenzten Pool (nach dem Upload angestoßen)
+ * - Ablage neben dem Blob ({@code <key>.thumb.jpg}), damit je Blob nur einmal gerechnet wird
+ * - Fehlt das Thumbnail beim Abruf (Queue voll, Altbestand), wird es nachgeholt
+ */
+@Service
+public class AttachmentPreviewService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttachmentPreviewService.class);
+
+    private static final float JPEG_QUALITY = 0.8f;
+
+    private final AttachmentStorageService storage;
+    private final boolean enabled;
+    private final int maxDimension;
+    private final ThreadPoolExecutor executor;
+    /** Laufende Erzeugungen je Storage-Key (Upload-Trigger und Abruf teilen sich einen Job). */
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    public AttachmentPreviewService(AttachmentStorageService storage, StorageProperties props) {
+        StorageProperties.Preview cfg = props.getAttachments().getPreview();
+        this.storage = storage;
+        this.enabled = cfg.isEnabled();
+        this.maxDimension = Math.max(32, cfg.getMaxDimension());
+        int threads = Math.max(1, cfg.getThreads());
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, cfg.getQueueCapacity())),
+                r -> {
+                    Thread t = new Thread(r, "attachment-preview-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(Thread.MIN_PRIORITY);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Für diesen MIME-Typ gibt es eine Vorschau (auch vom Mapper genutzt). */
+    public static boolean isPreviewable(String mime) {
+        if (mime == null) return false;
+        String m = mime.toLowerCase(Locale.ROOT);
+        return m.equals("application/pdf")
+                || m.equals("image/jpeg") || m.equals("image/png")
+                || m.equals("image/gif") || m.equals("image/bmp");
+    }
+
+    /** Nach dem Upload: Vorschau im Hintergrund erzeugen (Queue voll → später beim Abruf). */
+    public void schedule(String storageKey, String mime) {
+        if (!enabled || !isPreviewable(mime) || Files.exists(storage.thumbnailPath(storageKey))) return;
+        try {
+            submit(storageKey, mime);
+        } catch (RejectedExecutionException e) {
+            log.debug("[Preview] Queue voll, key={} wird beim ersten Abruf erzeugt", storageKey);
+        }
+    }
+
+    /**
+     * Pfad des Vorschaubilds; erzeugt es bei Bedarf und wartet höchstens {@code waitMillis}.
+     * Optional.empty() = kein Vorschau-Typ oder Erzeugung fehlgeschlagen.
+     *
+     * @throws TimeoutException wenn die Erzeugung noch läuft / in der Queue steht
+     */
+    public Optional<Path> thumbnail(String storageKey, String mime, long waitMillis) throws TimeoutException {
+        if (!enabled || !isPreviewable(mime)) return Optional.empty();
+        Path thumb = storage.thumbnailPath(storageKey);
+        if (Files.exists(thumb)) return Optional.of(thumb);
+        CompletableFuture<Path> job;
+        try {
+            job = submit(storageKey, mime);
+        } catch (RejectedExecutionException e) {
+            throw new TimeoutException("Vorschau-Queue voll");
+        }
+        try {
+            return Optional.ofNullable(job.get(waitMillis, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("unterbrochen");
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        }
+    }
+
+    private CompletableFuture<Path> submit(String storageKey, String mime) {
+        CompletableFuture<Path> fresh = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(storageKey, fresh);
+        if (existing != null) return existing;
+        try {
+            executor.execute(() -> {
+                try {
+                    fresh.complete(generate(storageKey, mime));
+                } catch (Exception | LinkageError e) {
+                    log.warn("[Preview] Erzeugung fehlgeschlagen key={} mime={}: {}", storageKey, mime, e.toString());
+                    fresh.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(storageKey, fresh);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(storageKey, fresh);
+            throw e;
+        }
+        return fresh;
+    }
+
+    private Path generate(String storageKey, String mime) throws IOException {
+        Path thumb = storage.thumbnailPath(storageKey);
+        if (Files.exists(thumb)) return thumb;
+
+        BufferedImage source = "application/pdf".equalsIgnoreCase(mime)
+                ? renderPdfFirstPage(storageKey)
+                : readImageSubsampled(storageKey);
+        if (source == null) {
+            throw new IOException("Kein lesbares Bild");
+        }
+        BufferedImage scaled = scaleToFit(source, maxDimension);
+
+        // Temp + atomarer Rename: Abrufer sehen nie ein halbes JPEG
+        Files.createDirectories(thumb.getParent());
+        Path temp = thumb.resolveSibling(AttachmentStorageService.TEMP_PREFIX
+                + UUID.randomUUID().toString().replace("-", "") + ".tmp");
+        try {
+            writeJpeg(scaled, temp);
+            Files.move(temp, thumb, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        log.debug("[Preview] Thumbnail erzeugt key={} {}x{}", storageKey, scaled.getWidth(), scaled.getHeight());
+        return thumb;
+    }
+
+    /** Liest nur jedes n-te Pixel, damit ein 40-MP-Foto den Heap des Pi nicht sprengt. */
+    private BufferedImage readImageSubsampled(String storageKey) throws IOException {
+        try (InputStream in = storage.openContent(storageKey);
+             ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            if (iis == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longest / (maxDimension * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * PDFBox liest direkt aus der Datei (gepuffert, wahlfreier Zugriff) statt das ganze PDF in den Heap
+     * zu laden. gzip-Blobs werden dafür erst entpackt neben den Blob gespoolt.
+     */
+    private BufferedImage renderPdfFirstPage(String storageKey) throws IOException {
+        Path blob = storage.resolve(storageKey);
+        if (storage.encodingOf(blob) == null) {
+            return renderPdfFirstPage(blob);
+        }
+        Path temp = blob.resolveSibling(AttachmentStorageService.TEMP_PREFIX
+                + UUID.randomUUID().toString().replace("-", "") + ".tmp");
+        try {
+            try (InputStream in = storage.openContent(storageKey)) {
+                Files.copy(in, temp);
+            }
+            return renderPdfFirstPage(temp);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private BufferedImage renderPdfFirstPage(Path pdf) throws IOException {
+        try (PDDocument doc = Loader.loadPDF(pdf.toFile())) {
+            if (doc.getNumberOfPages() == 0) return null;
+            PDRectangle box = doc.getPage(0).getCropBox();
+            float longest = Math.max(box.getWidth(), box.getHeight());
+            // doppelte Zielauflösung rendern, danach sauber herunterskalieren
+            float scale = longest > 0 ? (maxDimension * 2f) / longest : 1f;
+            return new PDFRenderer(doc).renderImage(0, scale, ImageType.RGB);
+        }
+    }
+
+    private static BufferedImage scaleToFit(BufferedImage src, int max) {
+        int w = src.getWidth();
+        int h = src.getHeight();
+        double f = Math.min(1.0, (double) max / Math.max(w, h));
+        int tw = Math.max(1, (int) Math.round(w * f));
+        int th = Math.max(1, (int) Math.round(h * f));
+        BufferedImage out = new BufferedImage(tw, th, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE); // transparente PNGs auf weiß
+            g.fillRect(0, 0, tw, th);
+            g.drawImage(src, 0, 0, tw, th, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    private static void writeJpeg(BufferedImage img, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(img, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -5,10 +5,17 @@ import com.pp.taskmanagementbackend.model.Task;
 import com.pp.taskmanagementbackend.repository.AttachmentRepository;
 import com.pp.taskmanagementbackend.repository.TaskRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
 import java.util.List;
 
 @Service
@@ -17,11 +24,19 @@ public class AttachmentService {
     private final AttachmentRepository repo;
     private final AttachmentStorageService storage;
     private final TaskRepository taskRepo;
+    private final AttachmentPreviewService previews;
+    private final AttachmentCleanupService cleanup;
+    private final TransactionTemplate tx;
 
-    public AttachmentService(AttachmentRepository repo, AttachmentStorageService storage, TaskRepository taskRepo) {
+    public AttachmentService(AttachmentRepository repo, AttachmentStorageService storage, TaskRepository taskRepo,
+                             AttachmentPreviewService previews, AttachmentCleanupService cleanup,
+                             PlatformTransactionManager transactionManager) {
         this.repo = repo;
         this.storage = storage;
         this.taskRepo = taskRepo;
+        this.previews = previews;
+        this.cleanup = cleanup;
+        this.tx = new TransactionTemplate(transactionManager);
     }
     
     public class NotFoundException extends RuntimeException {
@@ -38,21 +53,96 @@ public class AttachmentService {
         return repo.findByTask(task);
     }
 
-    @Transactional
+    /** Multipart-Upload; wie der Stream-Upload ohne Transaktion (siehe dort). */
     public Attachment upload(Long taskId, MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return upload(taskId, in, file.getOriginalFilename(), file.getContentType());
+        }
+    }
+
+    /**
+     * Upload direkt aus einem Stream (z. B. Request-Body): wird in einem Durchlauf in eine Temp-Datei
+     * im Attachment-Verzeichnis geschrieben und per atomarem Rename übernommen – kein zweites Kopieren.
+     * Das Staging läuft bewusst ohne Transaktion: ein langsamer Tablet-Upload (bis max-upload-size)
+     * hielte sonst eine Pool-Verbindung fest. Erst danach kurze Transaktion für Sperre, Rename und Insert.
+     */
+    public Attachment upload(Long taskId, InputStream in, String originalFilename, String contentType) throws IOException {
+        // früh abweisen, bevor Megabytes übertragen werden (kurze Abfrage, keine offene Transaktion)
+        if (!taskRepo.existsById(taskId)) throw new NotFoundException("Task %d not found".formatted(taskId));
+        String mime = contentType;
+        if (mime == null || mime.isBlank()) mime = "application/octet-stream";
+        AttachmentStorageService.StagedBlob staged = storage.stage(in, storage.shouldCompress(mime));
+        String finalMime = mime;
+        try {
+            return tx.execute(status -> store(taskId, staged, originalFilename, finalMime));
+        } catch (UncheckedIOException e) {
+            storage.discard(staged);
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            storage.discard(staged);
+            throw e;
+        }
+    }
+
+    /** Transaktionaler Teil des Uploads; läuft in {@link #tx}. */
+    private Attachment store(Long taskId, AttachmentStorageService.StagedBlob staged, String originalFilename,
+                             String mime) {
         Task task = requireTask(taskId);
-        String key = storage.store(file);
+        if (storage.isContentAddressed()) {
+            // Dedupe: Blob nur einmal je Inhalt ablegen, Sperre gegen parallelen releaseBlob()
+            repo.lockStorageKey(staged.sha256());
+        }
+        AttachmentStorageService.StoredBlob blob;
+        try {
+            blob = storage.commit(staged);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
         Attachment a = new Attachment();
-        String original = file.getOriginalFilename();
-        String safeName = original != null ? original.replaceAll("[\\\\/]+", "_") : "unnamed";
-        String mime = file.getContentType();
-        if (mime == null || mime.isBlank()) mime = "application/octet-stream";
+        String safeName = originalFilename != null && !originalFilename.isBlank()
+                ? originalFilename.replaceAll("[\\\\/]+", "_") : "unnamed";
         a.setTask(task);
         a.setFilename(safeName);
         a.setMime(mime);
-        a.setSize(file.getSize());
-        a.setStorageKey(key);
-        return repo.save(a);
+        a.setSize(staged.size());
+        a.setStoredSize(blob.storedSize());
+        a.setContentEncoding(blob.encoding());
+        a.setStorageKey(blob.key());
+        Attachment saved = repo.save(a);
+
+        // Vorschau erst nach dem Commit anstoßen (bei Rollback gibt es nichts zu zeigen)
+        String key = blob.key();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                previews.schedule(key, mime);
+            }
+        });
+        return saved;
+    }
+
+    /** Maximale Anzahl Task-IDs je Batch-Abfrage. */
+    public static final int MAX_BATCH_TASK_IDS = 1000;
+
+    /**
+     * Attachments mehrerer Tasks auf einmal (eine Query über idx_attachments_task_id).
+     * Unbekannte IDs liefern einfach nichts – anders als list() wird der Task nicht vorab geladen.
+     */
+    @Transactional(readOnly = true)
+    public List<Attachment> listByTasks(Collection<Long> taskIds) {
+        if (taskIds == null || taskIds.isEmpty()) return List.of();
+        if (taskIds.size() > MAX_BATCH_TASK_IDS) {
+            throw new IllegalArgumentException("Zu viele Task-IDs (max. " + MAX_BATCH_TASK_IDS + ")");
+        }
+        return repo.findByTaskIds(taskIds);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Attachment> listByStation(String station) {
+        if (station == null || station.isBlank()) {
+            throw new IllegalArgumentException("station darf nicht leer sein");
+        }
+        return repo.findByStation(station.trim());
     }
 
     @Transactional(readOnly = true)
@@ -60,10 +150,11 @@ public class AttachmentService {
         return repo.findByIdAndTaskId(attId, taskId).orElseThrow(() -> new RuntimeException("Attachment not found"));
     }
 
+    /** Löscht die Zeile; die Datei wird nach dem Commit asynchron freigegeben (falls unreferenziert). */
     @Transactional
-    public void delete(Long taskId, Long attId) throws IOException {
+    public void delete(Long taskId, Long attId) {
         Attachment a = get(taskId, attId);
-        storage.delete(a.getStorageKey());
         repo.delete(a);
+        cleanup.enqueue(List.of(a.getStorageKey()));
     }
 }
@@ -2,26 +2,74 @@ package com.pp.taskmanagementbackend.service;
 
 
 import com.pp.taskmanagementbackend.config.StorageProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class AttachmentStorageService {
 
     private static final Logger log = LoggerFactory.getLogger(AttachmentStorageService.class);
 
+    /** Präfix für halb geschriebene Uploads (werden nie als Blob referenziert). */
+    static final String TEMP_PREFIX = ".upload-";
+
     private final Path baseDir;
+    private final boolean contentAddressed;
+    private final long maxUploadBytes;
+    private final boolean sharded;
+    private final boolean gzip;
+
+    /** attachments.io.bytes: empfangen (Upload, unkomprimiert), geschrieben (Platte), gesendet (Download). */
+    private final Counter bytesReceived;
+    private final Counter bytesWritten;
+    private final Counter bytesSent;
+
+    /** Content-Encoding komprimierter Blobs; Datei liegt dann als {@code <key>.gz}. */
+    public static final String GZIP = "gzip";
+    private static final String GZIP_SUFFIX = ".gz";
+    /** Vorschaubild liegt neben dem Blob (je Blob einmal, auch bei Dedupe). */
+    private static final String THUMB_SUFFIX = ".thumb.jpg";
+
+    /** Bereits komprimierte Formate: erneutes Packen kostet nur CPU auf dem Pi. */
+    private static final List<String> INCOMPRESSIBLE_MIME_PREFIXES = List.of(
+            "image/", "video/", "audio/",
+            "application/zip", "application/gzip", "application/x-gzip", "application/zstd",
+            "application/x-7z-compressed", "application/x-rar-compressed", "application/vnd.rar",
+            "application/x-xz", "application/x-bzip2", "application/java-archive",
+            "application/vnd.openxmlformats-", "application/vnd.oasis.opendocument.");
+
+    /** Nur solche Keys werden aufgefächert (Hash/UUID ohne Bindestriche); alles andere bleibt flach. */
+    private static final java.util.regex.Pattern SHARDABLE_KEY = java.util.regex.Pattern.compile("[A-Za-z0-9]{5,}");
 
-    public AttachmentStorageService(com.pp.taskmanagementbackend.config.StorageProperties storage) {
+    public AttachmentStorageService(com.pp.taskmanagementbackend.config.StorageProperties storage,
+                                    MeterRegistry meterRegistry) {
     	String cfg = storage.getAttachments().getBasePath();
         if (java.nio.file.Paths.get(cfg) == null) {
             throw new IllegalStateException("Konfiguration fehlt: 'attachments.base-path' ist nicht gesetzt.");
@@ -42,7 +90,32 @@ public class AttachmentStorageService {
         if (!java.nio.file.Files.isWritable(p))   throw new IllegalStateException("Attachments-Basis nicht schreibbar: " + p);
 
         this.baseDir = p;
-        log.info("[Attachments] Base initialisiert: {}", this.baseDir);
+        this.contentAddressed = storage.getAttachments().isContentAddressed();
+        this.maxUploadBytes = storage.getAttachments().getMaxUploadSize().toBytes();
+        this.sharded = storage.getAttachments().isSharded();
+        String compression = storage.getAttachments().getCompression();
+        this.gzip = GZIP.equalsIgnoreCase(compression);
+        if (!gzip && compression != null && !"none".equalsIgnoreCase(compression)) {
+            throw new IllegalStateException("attachments.compression unbekannt: " + compression + " (erlaubt: none, gzip)");
+        }
+        this.bytesReceived = ioCounter(meterRegistry, "received");
+        this.bytesWritten = ioCounter(meterRegistry, "written");
+        this.bytesSent = ioCounter(meterRegistry, "sent");
+        log.info("[Attachments] Base initialisiert: {} (contentAddressed={}, sharded={}, compression={}, maxUploadBytes={})",
+                this.baseDir, this.contentAddressed, this.sharded, gzip ? GZIP : "none", this.maxUploadBytes);
+    }
+
+    private static Counter ioCounter(MeterRegistry registry, String direction) {
+        return Counter.builder("attachments.io.bytes")
+                .description("Attachment-I/O in Bytes")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .register(registry);
+    }
+
+    /** Download-Bytes zählen (Controller; bei Sendfile schreibt Tomcat selbst). */
+    public void countSent(long bytes) {
+        if (bytes > 0) bytesSent.increment(bytes);
     }
 
     @PostConstruct
@@ -55,25 +128,256 @@ public class AttachmentStorageService {
         }
     }
 
-    public String store(org.springframework.web.multipart.MultipartFile file) throws IOException {
+    public boolean isContentAddressed() {
+        return contentAddressed;
+    }
+
+    public boolean isSharded() {
+        return sharded;
+    }
+
+    public long getMaxUploadBytes() {
+        return maxUploadBytes;
+    }
+
+    /** Lohnt Komprimierung für diesen MIME-Typ (und ist sie eingeschaltet)? */
+    public boolean shouldCompress(String mime) {
+        if (!gzip) return false;
+        if (mime == null || mime.isBlank()) return true;
+        String m = mime.toLowerCase(Locale.ROOT);
+        if (m.startsWith("image/svg")) return true;
+        return INCOMPRESSIBLE_MIME_PREFIXES.stream().noneMatch(m::startsWith);
+    }
+
+    /**
+     * Temporär geschriebener Upload samt SHA-256 (hex, über den Originalinhalt), Originalgröße,
+     * Größe auf Platte und Content-Encoding (null = unkomprimiert).
+     */
+    public record StagedBlob(Path temp, String sha256, long size, long storedSize, String encoding) {}
+
+    /** Ein übernommener Blob, wie er tatsächlich auf Platte liegt (bei Dedupe: der vorhandene). */
+    public record StoredBlob(String key, long storedSize, String encoding) {}
+
+    public StagedBlob stage(InputStream in) throws IOException {
+        return stage(in, false);
+    }
+
+    /**
+     * Schreibt den Stream in eine Temp-Datei im Basisverzeichnis und hasht dabei mit
+     * (DigestInputStream, ein Durchlauf), optional gzip-komprimiert. Danach commit() oder discard() aufrufen.
+     * Mehr als maxUploadBytes → MaxUploadSizeExceededException, Temp-Datei wird entfernt.
+     */
+    public StagedBlob stage(InputStream in, boolean compress) throws IOException {
         Files.createDirectories(baseDir);
-        String key = UUID.randomUUID().toString().replace("-", "");
-        Path target = baseDir.resolve(key);
-        Files.copy(file.getInputStream(), target);
-        log.debug("[Attachments] Stored file name='{}' size={} bytes as key={} in {}",
-                file.getOriginalFilename(), file.getSize(), key, target);
-        return key;
+        Path temp = baseDir.resolve(TEMP_PREFIX + UUID.randomUUID().toString().replace("-", "") + ".tmp");
+        MessageDigest md = sha256();
+        long size = 0;
+        byte[] buf = new byte[64 * 1024];
+        try (DigestInputStream din = new DigestInputStream(in, md);
+             OutputStream file = Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             OutputStream out = compress ? new GZIPOutputStream(file, buf.length) : file) {
+            int n;
+            while ((n = din.read(buf)) != -1) {
+                size += n;
+                if (size > maxUploadBytes) {
+                    throw new MaxUploadSizeExceededException(maxUploadBytes);
+                }
+                out.write(buf, 0, n);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        bytesReceived.increment(size);
+        return new StagedBlob(temp, HexFormat.of().formatHex(md.digest()), size,
+                Files.size(temp), compress ? GZIP : null);
+    }
+
+    /**
+     * Übernimmt einen gestagten Blob per atomarem Rename (gleiches Verzeichnis/Dateisystem):
+     * content-addressed unter seinem Hash – existiert der Blob schon (Duplikat), wird nur die
+     * Temp-Datei verworfen; Aufrufer hält dann die Sperre für diesen Key. Sonst unter einem Zufalls-Key.
+     */
+    public StoredBlob commit(StagedBlob staged) throws IOException {
+        String key = contentAddressed ? staged.sha256() : UUID.randomUUID().toString().replace("-", "");
+        if (contentAddressed) {
+            Path existing = resolve(key);
+            if (Files.exists(existing)) {
+                Files.deleteIfExists(staged.temp());
+                log.debug("[Attachments] Dedupe-Treffer key={} size={} bytes", key, staged.size());
+                return new StoredBlob(key, Files.size(existing), encodingOf(existing));
+            }
+        }
+        Path target = targetPath(key);
+        if (GZIP.equals(staged.encoding())) {
+            target = target.resolveSibling(target.getFileName() + GZIP_SUFFIX);
+        }
+        Files.createDirectories(target.getParent());
+        Files.move(staged.temp(), target, StandardCopyOption.ATOMIC_MOVE);
+        bytesWritten.increment(staged.storedSize());
+        log.debug("[Attachments] Stored blob key={} size={} stored={} bytes in {}",
+                key, staged.size(), staged.storedSize(), target);
+        return new StoredBlob(key, staged.storedSize(), staged.encoding());
+    }
+
+    public void discard(StagedBlob staged) {
+        try {
+            Files.deleteIfExists(staged.temp());
+        } catch (IOException e) {
+            log.warn("[Attachments] Temp-Datei {} nicht löschbar: {}", staged.temp(), e.toString());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+
+    /**
+     * Absoluter Pfad der Datei zu einem Storage-Key (für Range-/Zero-Copy-Auslieferung).
+     * Aufgefächert ab/cd/abcdef…; alte flache Keys werden weiter gefunden, solange sie nicht migriert sind.
+     */
+    public Path resolve(String storageKey) {
+        Path target = targetPath(storageKey);
+        Path flat = checked(baseDir.resolve(storageKey));
+        for (Path p : List.of(target, withGzipSuffix(target), flat, withGzipSuffix(flat))) {
+            if (Files.exists(p)) return p;
+        }
+        // Datei wurde evtl. gerade von migrateToSharded() verschoben
+        return target;
+    }
+
+    /** Content-Encoding der Datei auf Platte (gzip bei Endung .gz, sonst null). */
+    public String encodingOf(Path blob) {
+        return blob.getFileName().toString().endsWith(GZIP_SUFFIX) ? GZIP : null;
+    }
+
+    /** Ablageort des Vorschaubilds zu einem Blob (existiert ggf. noch nicht). */
+    public Path thumbnailPath(String storageKey) {
+        Path t = targetPath(storageKey);
+        return t.resolveSibling(t.getFileName() + THUMB_SUFFIX);
+    }
+
+    /** Originalinhalt eines Blobs lesen (gzip-Blobs werden dabei entpackt). */
+    public InputStream openContent(String storageKey) throws IOException {
+        Path p = resolve(storageKey);
+        InputStream in = Files.newInputStream(p);
+        return GZIP.equals(encodingOf(p)) ? new GZIPInputStream(in, 64 * 1024) : in;
+    }
+
+    private static Path withGzipSuffix(Path p) {
+        return p.resolveSibling(p.getFileName() + GZIP_SUFFIX);
+    }
+
+    /** Ablageort für neue Blobs (je nach attachments.sharded aufgefächert oder flach). */
+    private Path targetPath(String storageKey) {
+        if (sharded && SHARDABLE_KEY.matcher(storageKey).matches()) {
+            return checked(baseDir.resolve(storageKey.substring(0, 2))
+                    .resolve(storageKey.substring(2, 4))
+                    .resolve(storageKey));
+        }
+        return checked(baseDir.resolve(storageKey));
+    }
+
+    private Path checked(Path p) {
+        Path n = p.normalize();
+        if (!n.startsWith(baseDir) || n.equals(baseDir)) {
+            throw new IllegalArgumentException("Ungültiger Storage-Key: " + p.getFileName());
+        }
+        return n;
     }
 
     public Resource loadAsResource(String storageKey) {
-        Path p = baseDir.resolve(storageKey);
+        Path p = resolve(storageKey);
         log.debug("[Attachments] Loading resource key={} from {}", storageKey, p);
         return new FileSystemResource(p.toFile());
     }
 
     public void delete(String storageKey) throws IOException {
-        Path p = baseDir.resolve(storageKey);
+        Path p = resolve(storageKey);
         boolean deleted = Files.deleteIfExists(p);
+        Files.deleteIfExists(thumbnailPath(storageKey));
         log.debug("[Attachments] Delete key={} path={} deleted={}", storageKey, p, deleted);
     }
+
+    /** Art einer Datei im Attachment-Verzeichnis. */
+    public enum FileKind { BLOB, THUMBNAIL, TEMP, OTHER }
+
+    /** Datei im Attachment-Verzeichnis mit abgeleitetem Storage-Key (null bei TEMP/OTHER). */
+    public record StoredFile(Path path, String key, FileKind kind, Instant modified) {}
+
+    /** Alle Dateien unterhalb des Basisverzeichnisses (flach und aufgefächert), für Abgleich/Sweeper. */
+    public List<StoredFile> listFiles() throws IOException {
+        List<StoredFile> result = new ArrayList<>();
+        try (Stream<Path> s = Files.walk(baseDir)) {
+            for (Path p : (Iterable<Path>) s.filter(Files::isRegularFile)::iterator) {
+                String name = p.getFileName().toString();
+                Instant modified;
+                try {
+                    modified = Files.getLastModifiedTime(p).toInstant();
+                } catch (IOException e) {
+                    continue; // gerade verschoben/gelöscht
+                }
+                if (name.startsWith(TEMP_PREFIX)) {
+                    result.add(new StoredFile(p, null, FileKind.TEMP, modified));
+                } else if (name.endsWith(THUMB_SUFFIX)) {
+                    result.add(new StoredFile(p, name.substring(0, name.length() - THUMB_SUFFIX.length()), FileKind.THUMBNAIL, modified));
+                } else {
+                    String key = name.endsWith(GZIP_SUFFIX) ? name.substring(0, name.length() - GZIP_SUFFIX.length()) : name;
+                    boolean blob = !key.startsWith(".") && !key.contains(".");
+                    result.add(new StoredFile(p, blob ? key : null, blob ? FileKind.BLOB : FileKind.OTHER, modified));
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Ergebnis der Layout-Migration. */
+    public record MigrationResult(int moved, int duplicates, int skipped, int failed) {}
+
+    /**
+     * Einmalige Migration: verschiebt alle flach im Basisverzeichnis liegenden Blobs in das
+     * aufgefächerte Layout (atomarer Rename, gleiches Dateisystem). Keys in der DB bleiben gleich.
+     * Idempotent und im laufenden Betrieb möglich; Temp-Dateien und Verzeichnisse werden übersprungen.
+     */
+    public MigrationResult migrateToSharded() throws IOException {
+        if (!sharded) {
+            throw new IllegalStateException("attachments.sharded=false – Migration nicht sinnvoll");
+        }
+        int moved = 0, duplicates = 0, skipped = 0, failed = 0;
+        List<Path> files;
+        try (Stream<Path> s = Files.list(baseDir)) {
+            files = s.filter(Files::isRegularFile).toList();
+        }
+        for (Path flat : files) {
+            String name = flat.getFileName().toString();
+            boolean gz = name.endsWith(GZIP_SUFFIX);
+            String key = gz ? name.substring(0, name.length() - GZIP_SUFFIX.length()) : name;
+            if (key.startsWith(".") || !SHARDABLE_KEY.matcher(key).matches()) {
+                skipped++;
+                continue;
+            }
+            try {
+                Path target = gz ? withGzipSuffix(targetPath(key)) : targetPath(key);
+                if (Files.exists(target)) {
+                    // Gleicher Key = gleicher Blob; flache Kopie ist überzählig
+                    Files.deleteIfExists(flat);
+                    duplicates++;
+                    continue;
+                }
+                Files.createDirectories(target.getParent());
+                Files.move(flat, target, StandardCopyOption.ATOMIC_MOVE);
+                moved++;
+            } catch (IOException | RuntimeException e) {
+                failed++;
+                log.warn("[Attachments] Migration von {} fehlgeschlagen: {}", flat, e.toString());
+            }
+        }
+        log.info("[Attachments] Layout-Migration: moved={} duplicates={} skipped={} failed={}",
+                moved, duplicates, skipped, failed);
+        return new MigrationResult(moved, duplicates, skipped, failed);
+    }
 }
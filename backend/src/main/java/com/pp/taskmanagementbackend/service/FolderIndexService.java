@@ -0,0 +1,304 @@
+package com.pp.taskmanagementbackend.service;
+
+import com.pp.taskmanagementbackend.config.StorageProperties;
+import com.pp.taskmanagementbackend.model.FsFolder;
+import com.pp.taskmanagementbackend.repository.FsFolderRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Ordner-Index für die FolderPicker-Suche (/api/fs/search).
+ * - Crawler läuft im Hintergrund (beim Start, periodisch); nach mkdir/rmdir/rename über die API
+ *   wird nur der betroffene Elternordner neu gelistet
+ * - Inkrementell: hat sich die mtime eines Ordners nicht geändert, werden seine Kinder aus dem
+ *   Index übernommen statt das Share erneut zu listen (nur ein stat je Ordner)
+ * - Geschrieben wird per JDBC-Batch (INSERT … ON CONFLICT): saveAll() würde bei zugewiesenen
+ *   String-IDs über merge() gehen und je Ordner erst ein SELECT absetzen
+ * - Suchanfragen gehen ausschließlich an die DB (Trigramm-Index), nie ans Share
+ */
+@Service
+public class FolderIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(FolderIndexService.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final String UPSERT_SQL = """
+            INSERT INTO fs_folders (path, name, parent, depth, mtime_ms) VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (path) DO UPDATE SET mtime_ms = EXCLUDED.mtime_ms
+            """;
+    private static final String DELETE_SUBTREE_SQL =
+            "DELETE FROM fs_folders WHERE path = ? OR path LIKE ? ESCAPE '\\'";
+    private static final String UPDATE_MTIME_SQL = "UPDATE fs_folders SET mtime_ms = ? WHERE path = ?";
+
+    private final FsFolderRepository repo;
+    private final JdbcTemplate jdbc;
+    private final Path base;
+    /** Attachment-Blobs liegen evtl. unterhalb des Shares – deren Fan-out-Ordner nicht indexieren. */
+    private final Path excluded;
+    private final boolean enabled;
+    private final int maxDepth;
+
+    private final ExecutorService crawler = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "folder-index");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+    private final AtomicBoolean scanQueued = new AtomicBoolean();
+    private final Set<String> refreshQueued = ConcurrentHashMap.newKeySet();
+    private volatile Instant lastScan;
+
+    public FolderIndexService(FsFolderRepository repo, JdbcTemplate jdbc, FolderPickerService folderPicker,
+                              StorageProperties storage) {
+        this.repo = repo;
+        this.jdbc = jdbc;
+        this.base = folderPicker.getBase();
+        String att = storage.getAttachments().getBasePath();
+        this.excluded = att != null ? Paths.get(att).toAbsolutePath().normalize() : null;
+        this.enabled = storage.getFolderpicker().isIndexEnabled();
+        this.maxDepth = Math.max(1, storage.getFolderpicker().getIndexMaxDepth());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        crawler.shutdownNow();
+    }
+
+    public Instant getLastScan() {
+        return lastScan;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        requestRescan();
+    }
+
+    @Scheduled(fixedDelayString = "${folderpicker.index-interval-ms:900000}",
+               initialDelayString = "${folderpicker.index-interval-ms:900000}")
+    public void scheduledRescan() {
+        requestRescan();
+    }
+
+    /** Rescan im Hintergrund anstoßen; mehrfache Anstöße fallen zu einem Lauf zusammen. */
+    public void requestRescan() {
+        if (!enabled) return;
+        if (scanQueued.compareAndSet(false, true)) {
+            crawler.execute(() -> {
+                scanQueued.set(false);
+                try {
+                    rescan();
+                } catch (Exception ex) {
+                    log.error("[FolderIndex] Rescan fehlgeschlagen: {}", ex.toString(), ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Nach mkdir/rmdir/rename über die API: nur die direkten Kinder von parentDir abgleichen
+     * (neue Ordner samt Unterbaum aufnehmen, verschwundene samt Unterbaum entfernen).
+     */
+    public void requestRefresh(Path parentDir) {
+        if (!enabled) return;
+        Path abs = parentDir.toAbsolutePath().normalize();
+        if (!abs.startsWith(base)) return;
+        String rel = base.relativize(abs).toString().replace('\\', '/');
+        if (refreshQueued.add(rel)) {
+            crawler.execute(() -> {
+                refreshQueued.remove(rel);
+                try {
+                    refresh(rel);
+                } catch (Exception ex) {
+                    log.error("[FolderIndex] Refresh von '{}' fehlgeschlagen: {}", rel, ex.toString(), ex);
+                }
+            });
+        }
+    }
+
+    /** Ergebnis eines Rescans. */
+    public record ScanResult(int folders, int listed, int upserted, int removed, long millis) {}
+
+    /**
+     * Gleicht den Index mit dem Share ab. Nur Ordner mit geänderter mtime (oder neue) werden gelistet.
+     * Bewusst ohne umschließende Transaktion: das Crawlen über CIFS kann dauern, eine DB-Verbindung
+     * soll dabei nicht belegt bleiben (Schreiben am Ende: ein Batch-DELETE, Upserts per JDBC-Batch).
+     */
+    public ScanResult rescan() throws IOException {
+        long t0 = System.currentTimeMillis();
+
+        Map<String, FsFolder> known = new HashMap<>();
+        Map<String, List<String>> knownChildren = new HashMap<>();
+        for (FsFolder f : repo.findAll()) {
+            known.put(f.getPath(), f);
+            knownChildren.computeIfAbsent(f.getParent(), k -> new ArrayList<>()).add(f.getPath());
+        }
+
+        Set<String> seen = new HashSet<>();
+        List<FsFolder> upserts = new ArrayList<>();
+
+        // Basis selbst steht nicht im Index; ihre Kinder immer listen (eine Ebene, billig)
+        Deque<String> queue = new ArrayDeque<>(listChildren(base, ""));
+        int listed = 1 + crawl(queue, known, knownChildren, seen, upserts);
+
+        List<String> removed = known.keySet().stream().filter(p -> !seen.contains(p)).toList();
+        if (!removed.isEmpty()) repo.deleteAllByIdInBatch(removed);
+        upsert(upserts);
+
+        lastScan = Instant.now();
+        ScanResult result = new ScanResult(seen.size(), listed, upserts.size(), removed.size(),
+                System.currentTimeMillis() - t0);
+        log.info("[FolderIndex] Rescan: folders={} listed={} upserted={} removed={} in {} ms",
+                result.folders(), result.listed(), result.upserted(), result.removed(), result.millis());
+        return result;
+    }
+
+    /** Gleicht die direkten Kinder von parentRel ('' = Basis) mit dem Share ab. */
+    ScanResult refresh(String parentRel) {
+        long t0 = System.currentTimeMillis();
+        int parentDepth = parentRel.isEmpty() ? 0 : parentRel.split("/").length;
+        if (parentDepth >= maxDepth) return new ScanResult(0, 0, 0, 0, 0); // Kinder nicht indexiert
+
+        Path dir = base.resolve(parentRel);
+        Set<String> onDisk = new HashSet<>(listChildren(dir, parentRel));
+        Set<String> indexed = new HashSet<>(repo.findPathsByParent(parentRel));
+
+        int removed = 0;
+        for (String gone : indexed) {
+            if (!onDisk.contains(gone)) removed += jdbc.update(DELETE_SUBTREE_SQL, gone, escapeLike(gone) + "/%");
+        }
+        Deque<String> queue = new ArrayDeque<>();
+        for (String child : onDisk) {
+            if (!indexed.contains(child)) queue.add(child);
+        }
+        Set<String> seen = new HashSet<>();
+        List<FsFolder> upserts = new ArrayList<>();
+        int listed = 1 + crawl(queue, Map.of(), Map.of(), seen, upserts);
+        upsert(upserts);
+        if (!parentRel.isEmpty()) {
+            // Kinder sind jetzt aktuell → nächster Rescan muss den Elternordner nicht erneut listen
+            try {
+                jdbc.update(UPDATE_MTIME_SQL, Files.getLastModifiedTime(dir).toMillis(), parentRel);
+            } catch (IOException e) {
+                log.debug("[FolderIndex] {} nicht lesbar: {}", dir, e.toString());
+            }
+        }
+
+        ScanResult result = new ScanResult(seen.size(), listed, upserts.size(), removed,
+                System.currentTimeMillis() - t0);
+        log.debug("[FolderIndex] Refresh '{}': listed={} upserted={} removed={} in {} ms",
+                parentRel, result.listed(), result.upserted(), result.removed(), result.millis());
+        return result;
+    }
+
+    /**
+     * Breitensuche ab den Ordnern in queue. Ordner mit unveränderter mtime übernehmen ihre Kinder aus
+     * knownChildren, alle anderen werden gelistet und landen in upserts. Liefert die Zahl der Listungen.
+     */
+    private int crawl(Deque<String> queue, Map<String, FsFolder> known, Map<String, List<String>> knownChildren,
+                      Set<String> seen, List<FsFolder> upserts) {
+        int listed = 0;
+        while (!queue.isEmpty()) {
+            String rel = queue.poll();
+            Path dir = base.resolve(rel);
+            long mtime;
+            try {
+                mtime = Files.getLastModifiedTime(dir).toMillis();
+            } catch (IOException e) {
+                continue; // zwischenzeitlich verschwunden → wird unten entfernt
+            }
+            seen.add(rel);
+            int depth = rel.split("/").length;
+            FsFolder f = known.get(rel);
+
+            List<String> children;
+            if (f != null && f.getMtimeMs() == mtime) {
+                children = knownChildren.getOrDefault(rel, List.of());
+            } else {
+                String name = rel.substring(rel.lastIndexOf('/') + 1);
+                String parent = rel.contains("/") ? rel.substring(0, rel.lastIndexOf('/')) : "";
+                upserts.add(f != null ? withMtime(f, mtime) : new FsFolder(rel, name, parent, depth, mtime));
+                children = depth < maxDepth ? listChildren(dir, rel) : List.of();
+                listed++;
+            }
+            if (depth < maxDepth) queue.addAll(children);
+        }
+        return listed;
+    }
+
+    private void upsert(List<FsFolder> folders) {
+        if (folders.isEmpty()) return;
+        jdbc.batchUpdate(UPSERT_SQL, folders, BATCH_SIZE, (ps, f) -> {
+            ps.setString(1, f.getPath());
+            ps.setString(2, f.getName());
+            ps.setString(3, f.getParent());
+            ps.setInt(4, f.getDepth());
+            ps.setLong(5, f.getMtimeMs());
+        });
+    }
+
+    private static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static FsFolder withMtime(FsFolder f, long mtime) {
+        f.setMtimeMs(mtime);
+        return f;
+    }
+
+    private List<String> listChildren(Path dir, String rel) {
+        try (Stream<Path> s = Files.list(dir)) {
+            return s.filter(Files::isDirectory)
+                    .filter(p -> !p.getFileName().toString().startsWith("."))
+                    .filter(p -> excluded == null || !p.toAbsolutePath().normalize().equals(excluded))
+                    .map(p -> rel.isEmpty() ? p.getFileName().toString() : rel + "/" + p.getFileName())
+                    .toList();
+        } catch (IOException e) {
+            log.debug("[FolderIndex] {} nicht lesbar: {}", dir, e.toString());
+            return List.of();
+        }
+    }
+
+    /**
+     * Teilstring-Suche über alle indexierten Ordnerpfade. Leerzeichen trennen Begriffe, die in dieser
+     * Reihenfolge vorkommen müssen ("kunde 2024" findet "Kunde/2024-03"). Unter 2 Zeichen → leer.
+     */
+    @Transactional(readOnly = true)
+    public List<String> search(String q, int limit) {
+        String raw = q == null ? "" : q.trim();
+        if (raw.length() < 2) return List.of();
+
+        String escaped = raw.replace("\\", "/") // Windows-Trenner wie im Index
+                .replace("%", "\\%").replace("_", "\\_");
+        String like = "%" + String.join("%", escaped.split("\\s+")) + "%";
+        String prefix = escaped.toLowerCase(Locale.ROOT) + "%";
+        int max = Math.max(1, Math.min(limit, 200));
+        return repo.search(like, prefix, max);
+    }
+}
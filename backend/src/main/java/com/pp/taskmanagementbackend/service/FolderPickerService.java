@@ -10,7 +10,6 @@ import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -22,8 +21,9 @@ public class FolderPickerService {
     private static final Logger log = LoggerFactory.getLogger(FolderPickerService.class);
 
     private final Path base;
+    private final FolderTreeCache cache;
 
-    public FolderPickerService(StorageProperties storage) {
+    public FolderPickerService(StorageProperties storage, FolderTreeCache cache) {
     	String cfg = storage.getFolderpicker().getBasePath();
         if (java.nio.file.Paths.get(cfg) == null) {
             throw new IllegalStateException("Konfiguration fehlt: 'folderpicker.base-path' ist nicht gesetzt.");
@@ -35,6 +35,7 @@ public class FolderPickerService {
         if (!Files.isWritable(p))    throw new IllegalStateException("Basisordner nicht schreibbar: " + p);
 
         this.base = p;
+        this.cache = cache;
         log.info("[FolderPicker] Base initialisiert: {}", this.base);
     }
 
@@ -67,21 +68,19 @@ public class FolderPickerService {
 
     /* ---------------------------------- API ------------------------------------ */
 
+    /** Relativen Pfad (z. B. Task.dateipfad) sicher unter der Basis auflösen. */
+    public Path resolve(String sub) {
+        return resolveSub(sub);
+    }
+
     /** Prüft, ob der (relative) Ordner existiert. */
     public boolean exists(String sub) {
         return Files.isDirectory(resolveSub(sub));
     }
 
-    /** Listet nur direkte Unterordner relativ zu 'sub'. */
+    /** Listet nur direkte Unterordner relativ zu 'sub' (aus dem FolderTreeCache). */
     public List<String> subfolders(String sub) throws IOException {
-        Path dir = resolveSub(sub);
-        if (!Files.isDirectory(dir)) return List.of();
-        try (Stream<Path> s = Files.list(dir)) {
-            return s.filter(Files::isDirectory)
-                    .map(p -> dir.relativize(p).toString().replace("\\", "/"))
-                    .sorted(String::compareToIgnoreCase)
-                    .collect(Collectors.toList());
-        }
+        return cache.subfolders(resolveSub(sub));
     }
 
     /** Legt unterhalb von 'sub' einen neuen Ordner 'name' an. */
@@ -96,6 +95,7 @@ public class FolderPickerService {
             throw new IllegalArgumentException("Ungültiger Pfad (Path Traversal).");
         }
         Files.createDirectory(target);
+        cache.invalidate(parent);
     }
 
     /** Prüft, ob der Ordner <sub>/<name> existiert und leer ist. */
@@ -119,6 +119,7 @@ public class FolderPickerService {
             if (s.findFirst().isPresent()) throw new DirectoryNotEmptyException(dir.toString());
         }
         Files.delete(dir);
+        cache.invalidate(dir.getParent());
     }
 
     /** Bennent einen Ordner unterhalb von 'sub' von 'from' nach 'to' um. */
@@ -145,5 +146,6 @@ public class FolderPickerService {
         }
 
         Files.move(src, dst);
+        cache.invalidate(parent);
     }
 }
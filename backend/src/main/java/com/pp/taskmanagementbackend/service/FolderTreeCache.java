@@ -0,0 +1,194 @@
+package com.pp.taskmanagementbackend.service;
+
+import com.pp.taskmanagementbackend.config.StorageProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * In-Memory-Cache der Unterordner-Listen für den FolderPicker.
+ *
+ * Das Share unter folderpicker.base-path hängt per CIFS am Pi; jedes Files.list kostet dort
+ * Roundtrips zum Windows-Server. Deshalb:
+ * - Einträge leben folderpicker.cache-ttl lang (Fallback, denn CIFS meldet fremde Änderungen nicht)
+ * - WatchService (inotify) invalidiert sofort, wo das Dateisystem Ereignisse liefert
+ * - Änderungen über die API (mkdir/rmdir/rename) invalidieren direkt
+ * - Nach dem Laden eines Ordners werden dessen Unterordner im Hintergrund vorgeladen (eine Ebene)
+ */
+@Component
+public class FolderTreeCache {
+
+    private static final Logger log = LoggerFactory.getLogger(FolderTreeCache.class);
+
+    /** Obergrenze für WatchService-Registrierungen (inotify-Watches sind je Benutzer limitiert). */
+    private static final int MAX_WATCHES = 2000;
+
+    private record Entry(List<String> folders, long loadedAtNanos) {}
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final boolean prefetch;
+    private final ConcurrentHashMap<Path, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Path, WatchKey> watches = new ConcurrentHashMap<>();
+    private final WatchService watchService;
+    private final Thread watchThread;
+    private final ThreadPoolExecutor prefetcher;
+
+    public FolderTreeCache(StorageProperties storage) {
+        StorageProperties.Folderpicker cfg = storage.getFolderpicker();
+        Duration ttl = cfg.getCacheTtl() != null ? cfg.getCacheTtl() : Duration.ofMinutes(5);
+        this.ttlNanos = Math.max(0, ttl.toNanos());
+        this.maxEntries = Math.max(100, cfg.getCacheMaxEntries());
+        this.prefetch = cfg.isPrefetch();
+
+        WatchService ws = null;
+        if (cfg.isWatch()) {
+            try {
+                ws = java.nio.file.FileSystems.getDefault().newWatchService();
+            } catch (IOException | UnsupportedOperationException e) {
+                log.info("[FolderPicker] WatchService nicht verfügbar, nur TTL: {}", e.toString());
+            }
+        }
+        this.watchService = ws;
+        if (ws != null) {
+            this.watchThread = new Thread(this::watchLoop, "folder-tree-watch");
+            this.watchThread.setDaemon(true);
+            this.watchThread.start();
+        } else {
+            this.watchThread = null;
+        }
+
+        // Ein Thread, kleine Queue: Prefetch ist nur Optimierung, Überlauf wird verworfen
+        this.prefetcher = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(256),
+                r -> {
+                    Thread t = new Thread(r, "folder-tree-prefetch");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+        this.prefetcher.allowCoreThreadTimeOut(true);
+
+        log.info("[FolderPicker] Cache: ttl={} maxEntries={} watch={} prefetch={}",
+                ttl, maxEntries, watchService != null, prefetch);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        prefetcher.shutdownNow();
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+                // beim Herunterfahren egal
+            }
+        }
+    }
+
+    /** Unterordner von {@code dir} (Namen, sortiert), aus dem Cache oder frisch gelesen. */
+    public List<String> subfolders(Path dir) throws IOException {
+        Entry e = entries.get(dir);
+        if (e != null && System.nanoTime() - e.loadedAtNanos() < ttlNanos) {
+            return e.folders();
+        }
+        List<String> folders = load(dir);
+        if (prefetch) {
+            for (String child : folders) {
+                Path c = dir.resolve(child);
+                if (!entries.containsKey(c)) {
+                    prefetcher.execute(() -> prefetchQuietly(c));
+                }
+            }
+        }
+        return folders;
+    }
+
+    /** Eintrag (und alle darunter) verwerfen – nach mkdir/rmdir/rename oder Watch-Ereignis. */
+    public void invalidate(Path dir) {
+        entries.keySet().removeIf(p -> p.startsWith(dir));
+    }
+
+    private void prefetchQuietly(Path dir) {
+        if (entries.containsKey(dir)) return;
+        try {
+            load(dir);
+        } catch (IOException | RuntimeException e) {
+            log.debug("[FolderPicker] Prefetch {} fehlgeschlagen: {}", dir, e.toString());
+        }
+    }
+
+    private List<String> load(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            entries.remove(dir);
+            return List.of();
+        }
+        // vor dem Listen registrieren, damit kein Ereignis zwischen Lesen und Watch verloren geht
+        watch(dir);
+        List<String> folders;
+        try (Stream<Path> s = Files.list(dir)) {
+            folders = s.filter(Files::isDirectory)
+                    .map(p -> dir.relativize(p).toString().replace("\\", "/"))
+                    .sorted(String::compareToIgnoreCase)
+                    .toList();
+        }
+        if (entries.size() >= maxEntries) {
+            // grob, aber selten: lieber einmal alles neu laden als unbegrenzt wachsen
+            entries.clear();
+        }
+        entries.put(dir, new Entry(folders, System.nanoTime()));
+        return folders;
+    }
+
+    private void watch(Path dir) {
+        if (watchService == null || watches.containsKey(dir) || watches.size() >= MAX_WATCHES) return;
+        try {
+            WatchKey key = dir.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            watches.put(dir, key);
+        } catch (IOException | UnsupportedOperationException e) {
+            log.debug("[FolderPicker] Watch für {} nicht möglich: {}", dir, e.toString());
+        }
+    }
+
+    private void watchLoop() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path dir = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE && event.context() instanceof Path child) {
+                    invalidate(dir.resolve(child));
+                }
+            }
+            // Einträge unterhalb bleiben gültig; nur die Liste dieses Ordners hat sich geändert
+            entries.remove(dir);
+            if (!key.reset()) {
+                // Ordner gelöscht/umbenannt oder nicht mehr erreichbar
+                watches.remove(dir, key);
+                invalidate(dir);
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.pp.taskmanagementbackend.service;
+
+import com.pp.taskmanagementbackend.config.StorageProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sammelprüfung von Task.dateipfad (relativ zu folderpicker.base-path):
+ * existiert der Ordner, wann wurde er zuletzt geändert?
+ * - Datei-Abfragen laufen parallel auf einem kleinen Pool (auf SMB I/O-gebunden)
+ * - Ergebnisse werden kurz gecacht (folderpicker.validate-ttl), damit Board-Refreshes das Share nicht fluten
+ * - Warteschlange begrenzt: ist sie voll (viele parallele Sammelprüfungen), kommt der Pfad als "timeout" zurück
+ * - validateTasks liest id/dateipfad per JDBC außerhalb jeder Transaktion; die DB-Verbindung ist zurück
+ *   im Pool, bevor die (langsamen) Datei-Abfragen beginnen – auch mit Open-Session-in-View
+ */
+@Service
+public class PathValidationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PathValidationService.class);
+
+    /**
+     * Höchstens so viele Pfade/Task-IDs je Anfrage. Ohne taskIds (alle Tasks) wird stattdessen in
+     * Blöcken dieser Größe geprüft; was das Gesamtbudget überschreitet, kommt als "timeout" zurück.
+     */
+    public static final int MAX_PATHS = 2000;
+    /** Gesamtbudget einer Sammelprüfung; was bis dahin nicht fertig ist, kommt als "timeout" zurück. */
+    private static final long REQUEST_TIMEOUT_MILLIS = 10_000;
+    private static final int MAX_CACHE_ENTRIES = 10_000;
+
+    /** Ergebnis je Pfad; lastModified = null, wenn nicht vorhanden. error: invalid | timeout | io. */
+    public record PathStatus(boolean exists, boolean directory, Instant lastModified, String error) {
+        static PathStatus missing() { return new PathStatus(false, false, null, null); }
+        static PathStatus failed(String error) { return new PathStatus(false, false, null, error); }
+    }
+
+    private record Cached(PathStatus status, long checkedAtNanos) {}
+
+    private record TaskPath(long id, String dateipfad) {}
+
+    private static final String ALL_PATHS_SQL =
+            "SELECT id, dateipfad FROM tasks WHERE dateipfad IS NOT NULL AND dateipfad <> ''";
+    private static final String PATHS_BY_ID_SQL =
+            "SELECT id, dateipfad FROM tasks WHERE id IN (:ids)";
+
+    private final FolderPickerService folderPicker;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<String, Cached> cache = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor pool;
+
+    public PathValidationService(FolderPickerService folderPicker, NamedParameterJdbcTemplate jdbc, StorageProperties storage) {
+        this.folderPicker = folderPicker;
+        this.jdbc = jdbc;
+        Duration ttl = storage.getFolderpicker().getValidateTtl();
+        this.ttlNanos = ttl != null ? Math.max(0, ttl.toNanos()) : 0;
+        int threads = Math.max(1, storage.getFolderpicker().getValidateThreads());
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_PATHS),
+                r -> {
+                    Thread t = new Thread(r, "path-validate-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /** Nach Änderungen über den FolderPicker (mkdir/rmdir/rename) alles neu prüfen. */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * Prüft die Pfade der angegebenen Tasks (leer/null = alle Tasks mit Dateipfad). Schlüssel = Task-ID.
+     * Bewusst ohne @Transactional: erst kurz lesen, dann ohne DB-Verbindung im Dateisystem prüfen.
+     */
+    public Map<Long, PathStatus> validateTasks(Collection<Long> taskIds) {
+        List<TaskPath> rows;
+        if (taskIds == null || taskIds.isEmpty()) {
+            rows = jdbc.query(ALL_PATHS_SQL, (rs, i) -> new TaskPath(rs.getLong(1), rs.getString(2)));
+        } else {
+            if (taskIds.size() > MAX_PATHS) {
+                throw new IllegalArgumentException("Zu viele Task-IDs (max. " + MAX_PATHS + ")");
+            }
+            rows = jdbc.query(PATHS_BY_ID_SQL, Map.of("ids", taskIds),
+                    (rs, i) -> new TaskPath(rs.getLong(1), rs.getString(2)));
+        }
+        Set<String> paths = new LinkedHashSet<>();
+        for (TaskPath r : rows) {
+            if (r.dateipfad() != null && !r.dateipfad().isBlank()) paths.add(r.dateipfad());
+        }
+
+        // Blockweise, damit "alle" nicht an MAX_PATHS scheitert; ein gemeinsames Zeitbudget
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(REQUEST_TIMEOUT_MILLIS);
+        Map<String, PathStatus> byPath = new LinkedHashMap<>();
+        List<String> all = new ArrayList<>(paths);
+        for (int from = 0; from < all.size(); from += MAX_PATHS) {
+            byPath.putAll(validate(all.subList(from, Math.min(all.size(), from + MAX_PATHS)), deadline));
+        }
+
+        Map<Long, PathStatus> out = new LinkedHashMap<>();
+        for (TaskPath r : rows) {
+            String p = r.dateipfad();
+            if (p != null && !p.isBlank()) out.put(r.id(), byPath.get(p));
+        }
+        return out;
+    }
+
+    /** Prüft relative Pfade; Ergebnis in Eingabereihenfolge, doppelte Pfade einmal. */
+    public Map<String, PathStatus> validate(Collection<String> relPaths) {
+        if (relPaths.size() > MAX_PATHS) {
+            throw new IllegalArgumentException("Zu viele Pfade (max. " + MAX_PATHS + ")");
+        }
+        return validate(relPaths, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(REQUEST_TIMEOUT_MILLIS));
+    }
+
+    private Map<String, PathStatus> validate(Collection<String> relPaths, long deadline) {
+        long now = System.nanoTime();
+        Map<String, PathStatus> out = new LinkedHashMap<>();
+        Map<String, CompletableFuture<PathStatus>> pending = new LinkedHashMap<>();
+
+        for (String raw : relPaths) {
+            if (raw == null || out.containsKey(raw) || pending.containsKey(raw)) continue;
+            Cached c = cache.get(raw);
+            if (c != null && now - c.checkedAtNanos() < ttlNanos) {
+                out.put(raw, c.status());
+            } else if (now - deadline >= 0) {
+                out.put(raw, PathStatus.failed("timeout")); // Budget schon durch frühere Blöcke verbraucht
+            } else {
+                out.put(raw, null); // Platzhalter für die Reihenfolge
+                try {
+                    pending.put(raw, CompletableFuture.supplyAsync(() -> check(raw), pool));
+                } catch (RejectedExecutionException e) {
+                    out.put(raw, PathStatus.failed("timeout")); // Warteschlange voll
+                }
+            }
+        }
+
+        for (Map.Entry<String, CompletableFuture<PathStatus>> e : pending.entrySet()) {
+            PathStatus status;
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                status = e.getValue().get(remaining, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                status = PathStatus.failed("timeout"); // Abfrage läuft weiter und füllt den Cache
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                status = PathStatus.failed("timeout");
+            } catch (ExecutionException ex) {
+                status = PathStatus.failed("io");
+            }
+            out.put(e.getKey(), status);
+        }
+        return out;
+    }
+
+    private PathStatus check(String rel) {
+        PathStatus status;
+        try {
+            Path p = folderPicker.resolve(rel);
+            BasicFileAttributes attrs = Files.readAttributes(p, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            status = new PathStatus(true, attrs.isDirectory(), attrs.lastModifiedTime().toInstant(), null);
+        } catch (NoSuchFileException e) {
+            status = PathStatus.missing();
+        } catch (IllegalArgumentException e) {
+            return PathStatus.failed("invalid"); // Traversal o. Ä. – nicht cachen, kostet nichts
+        } catch (IOException e) {
+            log.debug("[FolderPicker] Prüfung von '{}' fehlgeschlagen: {}", rel, e.toString());
+            status = PathStatus.failed("io");
+        }
+        if (cache.size() >= MAX_CACHE_ENTRIES) cache.clear();
+        cache.put(rel, new Cached(status, System.nanoTime()));
+        return status;
+    }
+}
@@ -0,0 +1,223 @@
+package com.pp.taskmanagementbackend.service;
+
+import com.pp.taskmanagementbackend.model.Assignee;
+import com.pp.taskmanagementbackend.model.Customer;
+import com.pp.taskmanagementbackend.model.Task;
+import com.pp.taskmanagementbackend.repository.AssigneeRepository;
+import com.pp.taskmanagementbackend.repository.CustomerRepository;
+import com.pp.taskmanagementbackend.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-Memory-Präfixindex für Typeahead-Vorschläge (Kunde, Zuständig, Teilenummer, FA).
+ *
+ * - Sortierte Map je Typ (Skip-List, case-insensitive Schlüssel) → Präfixsuche in O(log n + k),
+ *   Lesen ohne Lock und ohne DB-Zugriff.
+ * - Beim Start einmal komplett aus der DB aufgebaut, danach inkrementell bei Schreibzugriffen
+ *   (Controller/TaskService rufen die on*-Methoden). Task-Änderungen werden erst nach dem Commit
+ *   übernommen – ein Rollback hinterlässt so keine Vorschläge für nie gespeicherte Werte.
+ * - Teilenummer/FA sind distinct über alle Tasks; ein Wert verschwindet erst,
+ *   wenn ihn kein Task mehr verwendet (Referenzzähler).
+ */
+@Service
+public class SuggestIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestIndexService.class);
+
+    public static final String CUSTOMER = "customer";
+    public static final String ASSIGNEE = "assignee";
+    public static final String TEILENUMMER = "teilenummer";
+    public static final String FA = "fa";
+
+    private final CustomerRepository customerRepository;
+    private final AssigneeRepository assigneeRepository;
+    private final TaskRepository taskRepository;
+
+    private volatile Map<String, PrefixIndex> indexes = emptyIndexes();
+
+    /** taskId → [teilenummer, fa] wie zuletzt indiziert (für Diff bei Updates). */
+    private final Map<Long, String[]> taskKeys = new ConcurrentHashMap<>();
+
+    public SuggestIndexService(CustomerRepository customerRepository,
+                               AssigneeRepository assigneeRepository,
+                               TaskRepository taskRepository) {
+        this.customerRepository = customerRepository;
+        this.assigneeRepository = assigneeRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    /* ---------------------------------- Lesen ---------------------------------- */
+
+    /** Vorschläge für 'type' mit Präfix 'q' (case-insensitive), max. 'limit'. */
+    public List<String> suggest(String type, String q, int limit) {
+        PrefixIndex idx = indexes.get(type == null ? "" : type.trim().toLowerCase(Locale.ROOT));
+        if (idx == null) {
+            throw new IllegalArgumentException("Unbekannter Typ: " + type
+                    + " (erlaubt: " + String.join(", ", indexes.keySet()) + ")");
+        }
+        return idx.find(q, Math.max(1, Math.min(limit, 50)));
+    }
+
+    /* ------------------------------ Voll-Aufbau ------------------------------- */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuild();
+    }
+
+    /** Baut alle Indizes neu aus der DB auf (Start, nach Archivierung). */
+    public synchronized void rebuild() {
+        Map<String, PrefixIndex> fresh = emptyIndexes();
+        Map<Long, String[]> keys = new HashMap<>();
+
+        for (Customer c : customerRepository.findByActiveTrueOrderByNameAsc()) {
+            fresh.get(CUSTOMER).add(c.getName());
+        }
+        for (Assignee a : assigneeRepository.findByActiveTrueOrderByNameAsc()) {
+            fresh.get(ASSIGNEE).add(a.getName());
+        }
+        for (TaskRepository.TaskSuggestView t : taskRepository.findAllSuggestViewsBy()) {
+            fresh.get(TEILENUMMER).add(t.getTeilenummer());
+            fresh.get(FA).add(t.getFa());
+            keys.put(t.getId(), new String[]{t.getTeilenummer(), t.getFa()});
+        }
+
+        taskKeys.clear();
+        taskKeys.putAll(keys);
+        indexes = fresh;
+        log.info("[Suggest] Index aufgebaut: customers={}, assignees={}, teilenummern={}, fa={}",
+                fresh.get(CUSTOMER).size(), fresh.get(ASSIGNEE).size(),
+                fresh.get(TEILENUMMER).size(), fresh.get(FA).size());
+    }
+
+    /* --------------------------- Inkrementelle Pflege -------------------------- */
+
+    public synchronized void onCustomerSaved(String oldName, Customer saved) {
+        PrefixIndex idx = indexes.get(CUSTOMER);
+        if (oldName != null) idx.remove(oldName);
+        if (Boolean.TRUE.equals(saved.getActive())) idx.add(saved.getName());
+    }
+
+    public synchronized void onCustomerDeleted(Customer removed) {
+        if (Boolean.TRUE.equals(removed.getActive())) indexes.get(CUSTOMER).remove(removed.getName());
+    }
+
+    public synchronized void onAssigneeSaved(String oldName, Assignee saved) {
+        PrefixIndex idx = indexes.get(ASSIGNEE);
+        if (oldName != null) idx.remove(oldName);
+        if (Boolean.TRUE.equals(saved.getActive())) idx.add(saved.getName());
+    }
+
+    public synchronized void onAssigneeDeleted(Assignee removed) {
+        if (Boolean.TRUE.equals(removed.getActive())) indexes.get(ASSIGNEE).remove(removed.getName());
+    }
+
+    public void onTaskSaved(Task t) {
+        if (t == null || t.getId() == null) return;
+        // Werte jetzt lesen, die Entity kann nach dem Commit schon detached/verändert sein
+        Long id = t.getId();
+        String[] keys = {t.getTeilenummer(), t.getFa()};
+        afterCommit(() -> applyTaskSaved(id, keys));
+    }
+
+    public void onTaskDeleted(Long taskId) {
+        if (taskId == null) return;
+        afterCommit(() -> applyTaskDeleted(taskId));
+    }
+
+    private synchronized void applyTaskSaved(Long id, String[] keys) {
+        String[] prev = taskKeys.put(id, keys);
+        if (prev != null) {
+            indexes.get(TEILENUMMER).remove(prev[0]);
+            indexes.get(FA).remove(prev[1]);
+        }
+        indexes.get(TEILENUMMER).add(keys[0]);
+        indexes.get(FA).add(keys[1]);
+    }
+
+    private synchronized void applyTaskDeleted(Long taskId) {
+        String[] prev = taskKeys.remove(taskId);
+        if (prev != null) {
+            indexes.get(TEILENUMMER).remove(prev[0]);
+            indexes.get(FA).remove(prev[1]);
+        }
+    }
+
+    /** Wie in TaskEventPublisher: nach dem Commit, ohne aktive Transaktion sofort. */
+    private static void afterCommit(Runnable run) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    run.run();
+                }
+            });
+        } else {
+            run.run();
+        }
+    }
+
+    private static Map<String, PrefixIndex> emptyIndexes() {
+        Map<String, PrefixIndex> m = new LinkedHashMap<>();
+        m.put(CUSTOMER, new PrefixIndex());
+        m.put(ASSIGNEE, new PrefixIndex());
+        m.put(TEILENUMMER, new PrefixIndex());
+        m.put(FA, new PrefixIndex());
+        return Collections.unmodifiableMap(m);
+    }
+
+    /* ------------------------------- Datenstruktur ------------------------------ */
+
+    /**
+     * Sortierter, case-insensitiver Präfixindex mit Referenzzählung.
+     * Schreiben nur unter dem Monitor des SuggestIndexService, Lesen lock-frei.
+     */
+    static final class PrefixIndex {
+        private final ConcurrentSkipListMap<String, Entry> map = new ConcurrentSkipListMap<>();
+
+        private static final class Entry {
+            final String display;
+            int refs;
+            Entry(String display) { this.display = display; }
+        }
+
+        private static String key(String v) {
+            return v == null ? "" : v.trim().toLowerCase(Locale.ROOT);
+        }
+
+        void add(String value) {
+            String k = key(value);
+            if (k.isEmpty()) return;
+            map.computeIfAbsent(k, x -> new Entry(value.trim())).refs++;
+        }
+
+        void remove(String value) {
+            String k = key(value);
+            if (k.isEmpty()) return;
+            Entry e = map.get(k);
+            if (e != null && --e.refs <= 0) map.remove(k);
+        }
+
+        int size() { return map.size(); }
+
+        List<String> find(String prefix, int limit) {
+            String p = key(prefix);
+            List<String> out = new ArrayList<>(Math.min(limit, 16));
+            for (Map.Entry<String, Entry> e : map.tailMap(p, true).entrySet()) {
+                if (!e.getKey().startsWith(p) || out.size() >= limit) break;
+                out.add(e.getValue().display);
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.pp.taskmanagementbackend.service;
+
+import com.pp.taskmanagementbackend.config.ArchiveProperties;
+import com.pp.taskmanagementbackend.events.TaskEventPublisher;
+import com.pp.taskmanagementbackend.exception.TaskNotFoundException;
+import com.pp.taskmanagementbackend.model.ArchivedTask;
+import com.pp.taskmanagementbackend.repository.ArchivedTaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Archivierung erledigter Tasks.
+ * - Nächtlicher Job verschiebt finale Tasks nach Ablauf von archive.retention-days
+ *   batchweise nach tasks_archive (siehe DB-Funktion archive_finished_tasks).
+ * - Lesen des Archivs nur auf expliziten Aufruf; die Hot-Path-Queries auf "tasks"
+ *   sehen dadurch nur noch aktive bzw. frisch erledigte Arbeit.
+ */
+@Service
+public class TaskArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiveService.class);
+
+    private final ArchivedTaskRepository archiveRepository;
+    private final ArchiveProperties props;
+    private final TaskEventPublisher publisher;
+    private final SuggestIndexService suggestIndex;
+
+    public TaskArchiveService(ArchivedTaskRepository archiveRepository,
+                              ArchiveProperties props,
+                              TaskEventPublisher publisher,
+                              SuggestIndexService suggestIndex) {
+        this.archiveRepository = archiveRepository;
+        this.props = props;
+        this.publisher = publisher;
+        this.suggestIndex = suggestIndex;
+    }
+
+    @Scheduled(cron = "${archive.cron:0 30 2 * * *}")
+    public void scheduledArchive() {
+        if (!props.isEnabled()) return;
+        try {
+            archiveNow();
+        } catch (Exception ex) {
+            log.error("[Archive] Job fehlgeschlagen: {}", ex.toString(), ex);
+        }
+    }
+
+    /** Archiviert alle fälligen Tasks (mehrere Batches, je eine Transaktion). */
+    public int archiveNow() {
+        int retention = Math.max(0, props.getRetentionDays());
+        int batch = Math.max(1, props.getBatchSize());
+
+        int total = 0;
+        int moved;
+        do {
+            moved = archiveRepository.archiveFinishedTasks(retention, batch);
+            total += moved;
+        } while (moved >= batch);
+
+        if (total > 0) {
+            log.info("[Archive] {} Tasks archiviert (retentionDays={})", total, retention);
+            suggestIndex.rebuild();
+            publisher.onTaskDeleted();
+        } else {
+            log.debug("[Archive] nichts zu archivieren (retentionDays={})", retention);
+        }
+        return total;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ArchivedTask> list(String station, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, 1000)));
+        return (station == null || station.isBlank())
+                ? archiveRepository.findAllByOrderByArchivedAtDescIdDesc(page)
+                : archiveRepository.findAllByArbeitsstationOrderByArchivedAtDescIdDesc(station.trim(), page);
+    }
+
+    @Transactional(readOnly = true)
+    public ArchivedTask findById(Long id) {
+        return archiveRepository.findById(id)
+                .orElseThrow(() -> new TaskNotFoundException("Archivierter Task mit ID " + id + " nicht gefunden."));
+    }
+}
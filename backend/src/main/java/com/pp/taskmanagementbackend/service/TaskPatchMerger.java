@@ -0,0 +1,83 @@
+package com.pp.taskmanagementbackend.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pp.taskmanagementbackend.api.dto.TaskDto;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Feldweiser Drei-Wege-Merge für PATCH /api/tasks/{id} mit veralteter Version.
+ * base   = Stand, den der Client bearbeitet hat (TaskDto.base, vom Client mitgeschickt)
+ * mine   = Werte aus dem PATCH
+ * theirs = aktueller Stand in der DB
+ * Je Feld: mine == base → Client hat es nicht geändert, DB-Wert bleibt;
+ *          mine == theirs → nichts zu tun;
+ *          base == theirs → nur der Client hat geändert, wird übernommen;
+ *          sonst Konflikt. Ohne base-Wert gilt jede Abweichung von theirs als Konflikt.
+ */
+@Component
+public class TaskPatchMerger {
+
+    /** Per PATCH änderbare Felder (JSON-Namen wie in TaskDto). */
+    static final Set<String> PATCHABLE = Set.of(
+            "bezeichnung", "teilenummer", "kunde", "zuständig", "zusätzlicheInfos", "endDatum",
+            "aufwandStunden", "arbeitsstation", "status", "statusCode", "prioritaet", "fai", "qs",
+            "stk", "fa", "dateipfad", "additionalWorks");
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    /** toApply = PATCH reduziert auf die zu übernehmenden Felder; conflicts leer = Merge erfolgreich. */
+    public record Result(TaskDto toApply, List<String> conflicts) {}
+
+    private final ObjectMapper objectMapper;
+
+    public TaskPatchMerger(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public Result merge(TaskDto current, TaskDto patch) {
+        Map<String, Object> theirs = objectMapper.convertValue(current, MAP_TYPE);
+        Map<String, Object> mine = objectMapper.convertValue(patch, MAP_TYPE);
+        Map<String, Object> base = patch.getBase() != null ? patch.getBase() : Map.of();
+
+        Map<String, Object> apply = new LinkedHashMap<>();
+        List<String> conflicts = new ArrayList<>();
+        for (String field : PATCHABLE) {
+            Object m = mine.get(field);
+            if (m == null) continue; // nicht im PATCH
+            Object t = theirs.get(field);
+            boolean hasBase = base.containsKey(field);
+            Object b = base.get(field);
+
+            if (hasBase && same(m, b)) continue;   // vom Client unverändert
+            if (same(m, t)) continue;              // schon so in der DB
+            if (hasBase && same(b, t)) {
+                apply.put(field, m);               // nur der Client hat geändert
+            } else {
+                conflicts.add(field);
+            }
+        }
+        return new Result(objectMapper.convertValue(apply, TaskDto.class), conflicts);
+    }
+
+    /** Vergleich über JSON-Werte: null == "", Zahlen numerisch (2 == 2.0). */
+    static boolean same(Object a, Object b) {
+        if (isEmpty(a) && isEmpty(b)) return true;
+        if (a instanceof Number x && b instanceof Number y) {
+            return new BigDecimal(x.toString()).compareTo(new BigDecimal(y.toString())) == 0;
+        }
+        return Objects.equals(a, b);
+    }
+
+    private static boolean isEmpty(Object o) {
+        return o == null || (o instanceof String s && s.isBlank());
+    }
+}
@@ -1,6 +1,10 @@
 package com.pp.taskmanagementbackend.service;
 
+import com.pp.taskmanagementbackend.api.dto.TaskDto;
 import com.pp.taskmanagementbackend.events.TaskEventPublisher;
+import com.pp.taskmanagementbackend.exception.TaskConflictException;
+import com.pp.taskmanagementbackend.exception.TaskNotFoundException;
+import com.pp.taskmanagementbackend.mapper.TaskMapper;
 import com.pp.taskmanagementbackend.model.Attachment;
 import com.pp.taskmanagementbackend.model.Task;
 import com.pp.taskmanagementbackend.repository.AttachmentRepository;
@@ -10,12 +14,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Zentrale Task-Domänenlogik.
  * - Save/Update: publisht ein Update-Event.
- * - Delete: löscht vor dem DB-Delete die physischen Attachments (best effort) und publisht ein Delete-Event.
+ * - Patch: optimistische Sperre über die Version, bei veralteter Version Drei-Wege-Merge (TaskPatchMerger).
+ * - Delete: merkt die Attachment-Blobs zum asynchronen Löschen vor (Outbox) und publisht ein Delete-Event.
  */
 @Service
 public class TaskService {
@@ -24,17 +31,23 @@ public class TaskService {
 
     private final TaskRepository repository;
     private final TaskEventPublisher publisher;
-    private final AttachmentStorageService attachmentStorageService;
+    private final AttachmentCleanupService attachmentCleanup;
     private final AttachmentRepository attachmentRepository;
+    private final SuggestIndexService suggestIndex;
+    private final TaskPatchMerger merger;
 
     public TaskService(TaskRepository repository,
                        TaskEventPublisher publisher,
-                       AttachmentStorageService attachmentStorageService,
-                       AttachmentRepository attachmentRepository) {
+                       AttachmentCleanupService attachmentCleanup,
+                       AttachmentRepository attachmentRepository,
+                       SuggestIndexService suggestIndex,
+                       TaskPatchMerger merger) {
         this.repository = repository;
         this.publisher = publisher;
-        this.attachmentStorageService = attachmentStorageService;
+        this.attachmentCleanup = attachmentCleanup;
         this.attachmentRepository = attachmentRepository;
+        this.suggestIndex = suggestIndex;
+        this.merger = merger;
     }
 
     /** Liefert alle Tasks (ggf. später paging/filters ergänzen). */
@@ -42,6 +55,27 @@ public class TaskService {
         return repository.findAll();
     }
 
+    /**
+     * Gerankte Volltext-/Fuzzy-Suche über Teilenummer, FA, Kunde und Bezeichnung.
+     * Liefert höchstens 'limit' Treffer (1..100); leere/zu kurze Begriffe → leere Liste.
+     */
+    @Transactional(readOnly = true)
+    public List<Task> search(String q, int limit) {
+        String raw = q == null ? "" : q.trim();
+        if (raw.length() < 2) return List.of();
+
+        // Tokens für die Präfix-tsquery: nur Buchstaben/Ziffern, sonst bricht to_tsquery
+        List<String> tokens = new ArrayList<>();
+        for (String part : raw.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!part.isEmpty()) tokens.add(part + ":*");
+        }
+        if (tokens.isEmpty()) return List.of();
+
+        String like = "%" + raw.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        int max = Math.max(1, Math.min(limit, 100));
+        return repository.search(String.join(" & ", tokens), raw, like, max);
+    }
+
     /**
      * Erzeugt/aktualisiert einen Task.
      * Hinweis: Zwischen create/update unterscheiden (POST vs. PUT/PATCH) gerne im Controller;
@@ -50,16 +84,56 @@ public class TaskService {
     public Task save(Task t) {
         Task saved = repository.save(t);
         if (saved != null) {
-            publisher.onTaskUpdated();
+            suggestIndex.onTaskSaved(saved);
+            publisher.onTaskSaved(saved);
+        }
+        return saved;
+    }
+
+    /**
+     * Teil-Update mit optimistischer Sperre.
+     * expectedVersion = null → wie bisher, letzte Änderung gewinnt.
+     * Version passt → PATCH wird übernommen.
+     * Version veraltet → Drei-Wege-Merge; nicht überlappende Felder werden übernommen,
+     * echte Konflikte → TaskConflictException (409 mit aktuellem Stand).
+     * Gleichzeitige Commits zwischen Laden und Flush werfen ObjectOptimisticLockingFailureException
+     * (der Controller wiederholt einmal, dann greift der Merge).
+     */
+    @Transactional
+    public Task patch(Long id, TaskDto patch, Integer expectedVersion) {
+        Task entity = repository.findById(id).orElseThrow(() -> new TaskNotFoundException(id));
+
+        TaskDto toApply = patch;
+        if (expectedVersion != null && !expectedVersion.equals(entity.getVersion())) {
+            TaskPatchMerger.Result merged = merger.merge(TaskMapper.toDto(entity), patch);
+            if (!merged.conflicts().isEmpty()) {
+                throw new TaskConflictException(TaskMapper.toDto(entity), merged.conflicts());
+            }
+            toApply = merged.toApply();
+            log.debug("Task {}: Version {} statt {}, zusammengeführt", id, entity.getVersion(), expectedVersion);
+        }
+
+        TaskMapper.updateEntityFromDto(toApply, entity);
+        // Status-Code: statusCode, sonst status
+        String code = (toApply.getStatusCode() != null && !toApply.getStatusCode().isBlank())
+                ? toApply.getStatusCode().trim()
+                : (toApply.getStatus() != null ? toApply.getStatus().toString().trim() : null);
+        if (code != null && !code.isEmpty()) {
+            entity.setStatusCode(code);
         }
+
+        Task saved = repository.saveAndFlush(entity); // Versionskonflikt hier, nicht erst beim Commit
+        suggestIndex.onTaskSaved(saved);
+        publisher.onTaskSaved(saved);
         return saved;
     }
 
     /**
      * Löscht einen Task:
      * 1) Holt Attachments über AttachmentRepository (ohne Task#getAttachments()).
-     * 2) Löscht zugehörige Dateien im Dateisystem (best effort).
-     * 3) Entfernt den Task aus der DB.
+     * 2) Entfernt den Task aus der DB (attachments-Zeilen per ON DELETE CASCADE).
+     * 3) Merkt die Blobs in derselben Transaktion zum Löschen vor; gelöscht wird nach dem Commit
+     *    im Hintergrund und nur, wenn keine andere Zeile sie mehr referenziert.
      * 4) Publisht ein Delete-Event.
      */
     @Transactional
@@ -70,29 +144,15 @@ public class TaskService {
         // 1) Attachments zu diesem Task laden
         List<Attachment> attachments = attachmentRepository.findByTask(task);
 
-        // 2) Physische Dateien löschen (best effort)
-        if (attachments != null && !attachments.isEmpty()) {
-            for (Attachment att : attachments) {
-                try {
-                    // ⬇️ Falls dein Feld anders heißt (z. B. getPath()/getRelativePath()), hier anpassen.
-                    String storageKey = att.getStorageKey();
-                    if (storageKey != null && !storageKey.isBlank()) {
-                        attachmentStorageService.delete(storageKey);
-                        log.debug("[Attachments] Deleted file for key={} (taskId={})", storageKey, id);
-                    }
-                } catch (Exception ex) {
-                    // Dateien dürfen den Löschvorgang nicht blockieren
-                    log.warn("[Attachments] Could not delete file for taskId={}, attachmentId={}, reason={}",
-                            id, att.getId(), ex.toString());
-                }
-            }
-        }
-
-        // 3) DB-Delete
+        // 2) DB-Delete
         repository.delete(task);
+        suggestIndex.onTaskDeleted(id);
+
+        // 3) Blob-Löschung vormerken (Outbox, gleiche Transaktion)
+        attachmentCleanup.enqueue(attachments.stream().map(Attachment::getStorageKey).toList());
 
         // 4) Event
-        publisher.onTaskDeleted();
+        publisher.onTaskDeleted(task);
     }
     
     
@@ -4,12 +4,17 @@ import com.pp.taskmanagementbackend.model.Task;
 import com.pp.taskmanagementbackend.repository.TaskRepository;
 import com.pp.taskmanagementbackend.repository.ArbeitsstationRepository;
 import com.pp.taskmanagementbackend.events.TaskEventPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class TaskSortService {
@@ -18,13 +23,26 @@ public class TaskSortService {
   private final TaskRepository taskRepository;
   private final ArbeitsstationRepository arbeitsstationRepository;
   private final TaskEventPublisher publisher;
+  private final Timer committedTimer;
+  private final Timer rolledBackTimer;
 
   public TaskSortService(TaskRepository taskRepository,
                          ArbeitsstationRepository arbeitsstationRepository, 
-                         TaskEventPublisher publisher) {
+                         TaskEventPublisher publisher,
+                         MeterRegistry meterRegistry) {
     this.taskRepository = taskRepository;
     this.arbeitsstationRepository = arbeitsstationRepository;
     this.publisher = publisher;
+    this.committedTimer = sortTimer(meterRegistry, "committed");
+    this.rolledBackTimer = sortTimer(meterRegistry, "rolled_back");
+  }
+
+  private static Timer sortTimer(MeterRegistry registry, String outcome) {
+    return Timer.builder("tasks.sort.apply")
+        .description("TaskSortService.applyOrder inkl. Commit")
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .register(registry);
   }
 
   @Transactional
@@ -33,6 +51,7 @@ public class TaskSortService {
       log.debug("applyOrder: nichts zu tun (stationId={}, ids={})", arbeitsstationId, orderedIds);
       return;
     }
+    recordAfterCompletion(System.nanoTime());
 
     // Station-ID -> Name (text) auflösen
     final String stationName = arbeitsstationRepository.findById(arbeitsstationId)
@@ -58,6 +77,18 @@ public class TaskSortService {
       taskRepository.saveAll(toSave);
       log.info("applyOrder OK: station='{}' (id={}), ids={}", stationName, arbeitsstationId, orderedIds);
     }
-    publisher.onTaskUpdated();
+    publisher.onTasksSaved(toSave);
+  }
+
+  /** Zeit bis nach Commit/Rollback messen – das Flush der Prioritäten fällt erst dort an. */
+  private void recordAfterCompletion(long startNanos) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        Timer t = status == STATUS_COMMITTED ? committedTimer : rolledBackTimer;
+        t.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+      }
+    });
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,120 @@
+-- V20261019_01__station_day_load.sql
+-- Materialisierte Tageslast je Arbeitsstation (für /api/dashboard/utilization?source=materialized).
+-- Wird per Trigger auf tasks aktuell gehalten; finale Status (task_statuses.is_final) zählen nicht.
+
+CREATE TABLE station_day_load (
+    station     TEXT             NOT NULL,   -- normalisiert wie im Dashboard ('nicht zugeordnet' für leer)
+    day         DATE             NOT NULL,   -- = tasks.end_datum
+    hours       NUMERIC          NOT NULL DEFAULT 0,
+    task_count  INTEGER          NOT NULL DEFAULT 0,
+    CONSTRAINT pk_station_day_load PRIMARY KEY (station, day)
+);
+
+-- Dashboard liest "day <= to" → Range-Scan über day
+CREATE INDEX idx_station_day_load_day ON station_day_load (day);
+
+-- ---------------------------------------------------------------------------
+-- Einen Task-Beitrag addieren (p_sign = +1) bzw. abziehen (p_sign = -1)
+-- ---------------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION station_day_load_apply(p_station TEXT,
+                                                  p_day DATE,
+                                                  p_hours DOUBLE PRECISION,
+                                                  p_status_code TEXT,
+                                                  p_sign INTEGER)
+RETURNS void AS $$
+DECLARE
+    v_station TEXT;
+BEGIN
+    IF p_day IS NULL OR p_hours IS NULL OR p_hours <= 0
+       OR p_hours = 'NaN'::float8 OR p_hours = 'Infinity'::float8 THEN
+        RETURN;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM task_statuses s WHERE s.code = p_status_code AND s.is_final) THEN
+        RETURN;
+    END IF;
+
+    v_station := COALESCE(NULLIF(btrim(p_station), ''), 'nicht zugeordnet');
+
+    INSERT INTO station_day_load AS l (station, day, hours, task_count)
+    VALUES (v_station, p_day, p_sign * p_hours::numeric, p_sign)
+    ON CONFLICT (station, day) DO UPDATE
+        SET hours      = l.hours + EXCLUDED.hours,
+            task_count = l.task_count + EXCLUDED.task_count;
+
+    DELETE FROM station_day_load
+     WHERE station = v_station AND day = p_day AND task_count <= 0;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ---------------------------------------------------------------------------
+-- Komplett neu aufbauen (Initialbefüllung, Änderungen an task_statuses)
+-- ---------------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION station_day_load_rebuild()
+RETURNS void AS $$
+BEGIN
+    DELETE FROM station_day_load;
+
+    INSERT INTO station_day_load (station, day, hours, task_count)
+    SELECT COALESCE(NULLIF(btrim(t.arbeitsstation), ''), 'nicht zugeordnet'),
+           t.end_datum,
+           SUM(t.aufwand_stunden::numeric),
+           COUNT(*)
+      FROM tasks t
+      LEFT JOIN task_statuses s ON s.code = t.status_code
+     WHERE t.end_datum IS NOT NULL
+       AND t.aufwand_stunden > 0
+       AND t.aufwand_stunden <> 'NaN'::float8
+       AND t.aufwand_stunden <> 'Infinity'::float8
+       AND COALESCE(s.is_final, FALSE) = FALSE
+     GROUP BY 1, 2;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ---------------------------------------------------------------------------
+-- Trigger auf tasks
+-- ---------------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION trg_tasks_station_day_load()
+RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM station_day_load_apply(OLD.arbeitsstation, OLD.end_datum, OLD.aufwand_stunden, OLD.status_code, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM station_day_load_apply(NEW.arbeitsstation, NEW.end_datum, NEW.aufwand_stunden, NEW.status_code, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER tasks_station_day_load_ins_del
+    AFTER INSERT OR DELETE ON tasks
+    FOR EACH ROW EXECUTE FUNCTION trg_tasks_station_day_load();
+
+-- Nur lastrelevante Spalten; reine Umsortierungen (prioritaet) lösen nichts aus.
+CREATE TRIGGER tasks_station_day_load_upd
+    AFTER UPDATE OF arbeitsstation, end_datum, aufwand_stunden, status_code ON tasks
+    FOR EACH ROW
+    WHEN (OLD.arbeitsstation  IS DISTINCT FROM NEW.arbeitsstation
+       OR OLD.end_datum       IS DISTINCT FROM NEW.end_datum
+       OR OLD.aufwand_stunden IS DISTINCT FROM NEW.aufwand_stunden
+       OR OLD.status_code     IS DISTINCT FROM NEW.status_code)
+    EXECUTE FUNCTION trg_tasks_station_day_load();
+
+-- ---------------------------------------------------------------------------
+-- Trigger auf task_statuses: is_final/Code geändert → neu aufbauen (selten)
+-- ---------------------------------------------------------------------------
+CREATE OR REPLACE FUNCTION trg_task_statuses_station_day_load()
+RETURNS trigger AS $$
+BEGIN
+    PERFORM station_day_load_rebuild();
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER task_statuses_station_day_load
+    AFTER INSERT OR UPDATE OF is_final, code OR DELETE ON task_statuses
+    FOR EACH STATEMENT EXECUTE FUNCTION trg_task_statuses_station_day_load();
+
+-- Initialbefüllung
+SELECT station_day_load_rebuild();
@@ -0,0 +1,126 @@
+-- V20261019_02__tasks_archive.sql
+-- Archiv für erledigte Tasks: finale Tasks wandern nach Ablauf einer Aufbewahrungsfrist
+-- aus "tasks" nach "tasks_archive" (Attachments-Zeilen nach "attachments_archive").
+-- Dateien im Attachment-Verzeichnis bleiben unangetastet.
+
+-- 1) Zeitpunkt, ab dem ein Task final ist (per Trigger gepflegt, nicht in der Entity gemappt)
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS finished_at TIMESTAMP NULL;
+
+UPDATE tasks t
+   SET finished_at = now()
+  FROM task_statuses s
+ WHERE s.code = t.status_code AND s.is_final AND t.finished_at IS NULL;
+
+CREATE OR REPLACE FUNCTION trg_tasks_finished_at()
+RETURNS trigger AS $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM task_statuses s WHERE s.code = NEW.status_code AND s.is_final) THEN
+        NEW.finished_at := COALESCE(NEW.finished_at, now());
+    ELSE
+        NEW.finished_at := NULL;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER tasks_finished_at
+    BEFORE INSERT OR UPDATE OF status_code ON tasks
+    FOR EACH ROW EXECUTE FUNCTION trg_tasks_finished_at();
+
+-- 2) Archivtabellen
+CREATE TABLE tasks_archive (
+    id                 BIGINT PRIMARY KEY,
+    bezeichnung        TEXT NOT NULL,
+    teilenummer        TEXT,
+    kunde              TEXT,
+    zustaendig         TEXT,
+    zusaetzliche_infos TEXT,
+    end_datum          DATE,
+    aufwand_stunden    DOUBLE PRECISION,
+    arbeitsstation     TEXT,
+    status             TEXT,
+    prioritaet         INT,
+    fai                BOOLEAN NOT NULL DEFAULT FALSE,
+    qs                 BOOLEAN NOT NULL DEFAULT FALSE,
+    version            INTEGER NOT NULL DEFAULT 0,
+    stk                INT,
+    fa                 VARCHAR(64),
+    dateipfad          VARCHAR(512),
+    status_code        VARCHAR(64) NOT NULL,
+    additional_works   TEXT,
+    finished_at        TIMESTAMP,
+    archived_at        TIMESTAMP NOT NULL DEFAULT now(),
+    CONSTRAINT tasks_archive_status_code_fkey
+        FOREIGN KEY (status_code) REFERENCES task_statuses(code)
+        ON UPDATE CASCADE ON DELETE RESTRICT
+);
+
+CREATE INDEX idx_tasks_archive_archived_at ON tasks_archive (archived_at DESC, id);
+CREATE INDEX idx_tasks_archive_station     ON tasks_archive (arbeitsstation);
+
+CREATE TABLE attachments_archive (
+    id          BIGINT PRIMARY KEY,
+    task_id     BIGINT NOT NULL,
+    filename    VARCHAR(255) NOT NULL,
+    mime        VARCHAR(255) NOT NULL,
+    size        BIGINT NOT NULL,
+    storage_key VARCHAR(200) NOT NULL,
+    created_at  TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT now(),
+    CONSTRAINT fk_att_archive_task FOREIGN KEY (task_id) REFERENCES tasks_archive(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_attachments_archive_task ON attachments_archive (task_id);
+
+-- 3) Verschieben (ein Batch, eine Transaktion). Rückgabe: Anzahl archivierter Tasks.
+CREATE OR REPLACE FUNCTION archive_finished_tasks(p_retention_days INTEGER, p_limit INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    v_ids   BIGINT[];
+    v_count INTEGER;
+BEGIN
+    -- Selbstheilung, falls sich is_final eines Status nachträglich geändert hat
+    UPDATE tasks t SET finished_at = now()
+      FROM task_statuses s
+     WHERE s.code = t.status_code AND s.is_final AND t.finished_at IS NULL;
+    UPDATE tasks t SET finished_at = NULL
+      FROM task_statuses s
+     WHERE s.code = t.status_code AND NOT s.is_final AND t.finished_at IS NOT NULL;
+
+    WITH cand AS (
+        SELECT t.id
+          FROM tasks t
+         WHERE t.finished_at < now() - make_interval(days => p_retention_days)
+         ORDER BY t.finished_at, t.id
+         LIMIT p_limit
+           FOR UPDATE OF t SKIP LOCKED
+    )
+    SELECT array_agg(id) INTO v_ids FROM cand;
+
+    IF v_ids IS NULL THEN
+        RETURN 0;
+    END IF;
+
+    INSERT INTO tasks_archive (id, bezeichnung, teilenummer, kunde, zustaendig, zusaetzliche_infos,
+                               end_datum, aufwand_stunden, arbeitsstation, status, prioritaet,
+                               fai, qs, version, stk, fa, dateipfad, status_code, additional_works,
+                               finished_at)
+    SELECT id, bezeichnung, teilenummer, kunde, zustaendig, zusaetzliche_infos,
+           end_datum, aufwand_stunden, arbeitsstation, status, prioritaet,
+           fai, qs, version, stk, fa, dateipfad, status_code, additional_works,
+           finished_at
+      FROM tasks
+     WHERE id = ANY (v_ids);
+
+    INSERT INTO attachments_archive (id, task_id, filename, mime, size, storage_key, created_at)
+    SELECT id, task_id, filename, mime, size, storage_key, created_at
+      FROM attachments
+     WHERE task_id = ANY (v_ids);
+
+    -- attachments-Zeilen gehen per ON DELETE CASCADE mit
+    DELETE FROM tasks WHERE id = ANY (v_ids);
+    GET DIAGNOSTICS v_count = ROW_COUNT;
+
+    RETURN v_count;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,25 @@
+-- V20261019_03__task_search.sql
+-- Volltext- und Fuzzy-Suche über Tasks (für /api/tasks/search).
+-- pg_trgm ist ab PG13 "trusted" und kann vom DB-Owner angelegt werden.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Generierte tsvector-Spalte (nicht in der Entity gemappt).
+-- 'simple' statt 'german': Teilenummern/FA/Kundennamen sollen nicht gestemmt werden.
+ALTER TABLE tasks
+    ADD COLUMN search_tsv tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(teilenummer, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(fa, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(bezeichnung, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(kunde, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(zusaetzliche_infos, '')), 'D')
+    ) STORED;
+
+CREATE INDEX idx_tasks_search_tsv ON tasks USING GIN (search_tsv);
+
+-- Trigramm-Indizes für Teilstring (ILIKE '%x%') und Ähnlichkeit (%)
+CREATE INDEX idx_tasks_bezeichnung_trgm ON tasks USING GIN (bezeichnung gin_trgm_ops);
+CREATE INDEX idx_tasks_teilenummer_trgm ON tasks USING GIN (teilenummer gin_trgm_ops);
+CREATE INDEX idx_tasks_kunde_trgm       ON tasks USING GIN (kunde gin_trgm_ops);
+CREATE INDEX idx_tasks_fa_trgm          ON tasks USING GIN (fa gin_trgm_ops);
@@ -0,0 +1,9 @@
+-- V20261019_04__attachments_content_addressed.sql
+-- Content-addressed Attachments: gleiche Datei (SHA-256) wird nur einmal gespeichert,
+-- mehrere attachments-Zeilen dürfen denselben storage_key referenzieren.
+-- Referenzzähler = Anzahl Zeilen je storage_key (attachments + attachments_archive).
+
+ALTER TABLE attachments DROP CONSTRAINT IF EXISTS attachments_storage_key_key;
+
+CREATE INDEX IF NOT EXISTS idx_attachments_storage_key         ON attachments (storage_key);
+CREATE INDEX IF NOT EXISTS idx_attachments_archive_storage_key ON attachments_archive (storage_key);
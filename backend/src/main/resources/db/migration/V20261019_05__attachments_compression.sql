@@ -0,0 +1,62 @@
+-- V20261019_05__attachments_compression.sql
+-- Komprimierung at rest: size = Originalgröße, stored_size = Größe auf Platte,
+-- content_encoding = 'gzip' oder NULL (unkomprimiert). Bestand bleibt NULL (= size).
+
+ALTER TABLE attachments         ADD COLUMN stored_size BIGINT NULL;
+ALTER TABLE attachments         ADD COLUMN content_encoding VARCHAR(16) NULL;
+ALTER TABLE attachments_archive ADD COLUMN stored_size BIGINT NULL;
+ALTER TABLE attachments_archive ADD COLUMN content_encoding VARCHAR(16) NULL;
+
+-- Archivierung: neue Spalten mitnehmen (sonst identisch zu V20261019_02)
+CREATE OR REPLACE FUNCTION archive_finished_tasks(p_retention_days INTEGER, p_limit INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    v_ids   BIGINT[];
+    v_count INTEGER;
+BEGIN
+    UPDATE tasks t SET finished_at = now()
+      FROM task_statuses s
+     WHERE s.code = t.status_code AND s.is_final AND t.finished_at IS NULL;
+    UPDATE tasks t SET finished_at = NULL
+      FROM task_statuses s
+     WHERE s.code = t.status_code AND NOT s.is_final AND t.finished_at IS NOT NULL;
+
+    WITH cand AS (
+        SELECT t.id
+          FROM tasks t
+         WHERE t.finished_at < now() - make_interval(days => p_retention_days)
+         ORDER BY t.finished_at, t.id
+         LIMIT p_limit
+           FOR UPDATE OF t SKIP LOCKED
+    )
+    SELECT array_agg(id) INTO v_ids FROM cand;
+
+    IF v_ids IS NULL THEN
+        RETURN 0;
+    END IF;
+
+    INSERT INTO tasks_archive (id, bezeichnung, teilenummer, kunde, zustaendig, zusaetzliche_infos,
+                               end_datum, aufwand_stunden, arbeitsstation, status, prioritaet,
+                               fai, qs, version, stk, fa, dateipfad, status_code, additional_works,
+                               finished_at)
+    SELECT id, bezeichnung, teilenummer, kunde, zustaendig, zusaetzliche_infos,
+           end_datum, aufwand_stunden, arbeitsstation, status, prioritaet,
+           fai, qs, version, stk, fa, dateipfad, status_code, additional_works,
+           finished_at
+      FROM tasks
+     WHERE id = ANY (v_ids);
+
+    INSERT INTO attachments_archive (id, task_id, filename, mime, size, storage_key, created_at,
+                                     stored_size, content_encoding)
+    SELECT id, task_id, filename, mime, size, storage_key, created_at,
+           stored_size, content_encoding
+      FROM attachments
+     WHERE task_id = ANY (v_ids);
+
+    -- attachments-Zeilen gehen per ON DELETE CASCADE mit
+    DELETE FROM tasks WHERE id = ANY (v_ids);
+    GET DIAGNOSTICS v_count = ROW_COUNT;
+
+    RETURN v_count;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,15 @@
+-- V20261019_06__attachment_blob_deletions.sql
+-- Outbox für Blob-Löschungen: wird in derselben Transaktion wie das Löschen der
+-- attachments-Zeilen geschrieben und nach dem Commit von einem Hintergrund-Worker
+-- abgearbeitet (Referenzen werden dort unter Advisory-Lock erneut gezählt).
+
+CREATE TABLE attachment_blob_deletions (
+    id              BIGSERIAL PRIMARY KEY,
+    storage_key     VARCHAR(200) NOT NULL,
+    enqueued_at     TIMESTAMP    NOT NULL DEFAULT now(),
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP    NOT NULL DEFAULT now(),
+    last_error      TEXT NULL
+);
+
+CREATE INDEX idx_attachment_blob_deletions_due ON attachment_blob_deletions (next_attempt_at, id);
@@ -0,0 +1,5 @@
+-- V20261019_07__attachments_task_idx.sql
+-- attachments.task_id hatte keinen Index (nur FK). Genutzt von findByTask,
+-- countByTaskId und dem Batch-Endpunkt GET /api/attachments?taskIds=… / ?station=…
+
+CREATE INDEX IF NOT EXISTS idx_attachments_task_id ON attachments (task_id, id);
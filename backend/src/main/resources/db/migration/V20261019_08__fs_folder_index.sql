@@ -0,0 +1,14 @@
+-- V20261019_08__fs_folder_index.sql
+-- Index des Ordnerbaums unter folderpicker.base-path (für /api/fs/search).
+-- Gepflegt vom FolderIndexService (Crawler mit inkrementellem Rescan über mtime).
+
+CREATE TABLE fs_folders (
+    path      TEXT    PRIMARY KEY,   -- relativ zur Basis, '/'-getrennt, ohne führenden Slash
+    name      TEXT    NOT NULL,      -- letzter Pfadbestandteil
+    parent    TEXT    NOT NULL,      -- '' für Ordner direkt unter der Basis
+    depth     INTEGER NOT NULL,      -- 1 = direkt unter der Basis
+    mtime_ms  BIGINT  NOT NULL       -- mtime beim letzten Listen; unverändert → Kinder nicht neu listen
+);
+
+-- Teilstring-/Präfixsuche (ILIKE) über Trigramme; pg_trgm kommt aus V20261019_03
+CREATE INDEX idx_fs_folders_path_trgm ON fs_folders USING GIN (path gin_trgm_ops);
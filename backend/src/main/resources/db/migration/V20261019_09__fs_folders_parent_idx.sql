@@ -0,0 +1,5 @@
+-- V20261019_09__fs_folders_parent_idx.sql
+-- Kinder eines Ordners nachschlagen (FolderIndexService.refresh nach mkdir/rmdir/rename),
+-- ohne fs_folders komplett zu lesen.
+
+CREATE INDEX IF NOT EXISTS idx_fs_folders_parent ON fs_folders (parent);
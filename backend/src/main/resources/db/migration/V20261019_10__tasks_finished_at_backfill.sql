@@ -0,0 +1,79 @@
+-- V20261019_10__tasks_finished_at_backfill.sql
+-- finished_at einmalig nachziehen statt bei jedem Archiv-Batch (bisher zwei UPDATEs über alle
+-- Tasks pro Aufruf von archive_finished_tasks). Ändert sich is_final eines Status später,
+-- gleicht ein Trigger auf task_statuses nur die Tasks dieses Status ab.
+
+-- 1) Bestand einmalig abgleichen
+UPDATE tasks t SET finished_at = now()
+  FROM task_statuses s
+ WHERE s.code = t.status_code AND s.is_final AND t.finished_at IS NULL;
+UPDATE tasks t SET finished_at = NULL
+  FROM task_statuses s
+ WHERE s.code = t.status_code AND NOT s.is_final AND t.finished_at IS NOT NULL;
+
+-- 2) is_final eines Status geändert -> finished_at seiner Tasks nachziehen
+CREATE OR REPLACE FUNCTION trg_task_statuses_is_final()
+RETURNS trigger AS $$
+BEGIN
+    IF NEW.is_final THEN
+        UPDATE tasks SET finished_at = now()
+         WHERE status_code = NEW.code AND finished_at IS NULL;
+    ELSE
+        UPDATE tasks SET finished_at = NULL
+         WHERE status_code = NEW.code AND finished_at IS NOT NULL;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER task_statuses_is_final
+    AFTER UPDATE OF is_final ON task_statuses
+    FOR EACH ROW WHEN (OLD.is_final IS DISTINCT FROM NEW.is_final)
+    EXECUTE FUNCTION trg_task_statuses_is_final();
+
+-- 3) Archivierung ohne Selbstheilung (sonst identisch zu V20261019_05)
+CREATE OR REPLACE FUNCTION archive_finished_tasks(p_retention_days INTEGER, p_limit INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    v_ids   BIGINT[];
+    v_count INTEGER;
+BEGIN
+    WITH cand AS (
+        SELECT t.id
+          FROM tasks t
+         WHERE t.finished_at < now() - make_interval(days => p_retention_days)
+         ORDER BY t.finished_at, t.id
+         LIMIT p_limit
+           FOR UPDATE OF t SKIP LOCKED
+    )
+    SELECT array_agg(id) INTO v_ids FROM cand;
+
+    IF v_ids IS NULL THEN
+        RETURN 0;
+    END IF;
+
+    INSERT INTO tasks_archive (id, bezeichnung, teilenummer, kunde, zustaendig, zusaetzliche_infos,
+                               end_datum, aufwand_stunden, arbeitsstation, status, prioritaet,
+                               fai, qs, version, stk, fa, dateipfad, status_code, additional_works,
+                               finished_at)
+    SELECT id, bezeichnung, teilenummer, kunde, zustaendig, zusaetzliche_infos,
+           end_datum, aufwand_stunden, arbeitsstation, status, prioritaet,
+           fai, qs, version, stk, fa, dateipfad, status_code, additional_works,
+           finished_at
+      FROM tasks
+     WHERE id = ANY (v_ids);
+
+    INSERT INTO attachments_archive (id, task_id, filename, mime, size, storage_key, created_at,
+                                     stored_size, content_encoding)
+    SELECT id, task_id, filename, mime, size, storage_key, created_at,
+           stored_size, content_encoding
+      FROM attachments
+     WHERE task_id = ANY (v_ids);
+
+    -- attachments-Zeilen gehen per ON DELETE CASCADE mit
+    DELETE FROM tasks WHERE id = ANY (v_ids);
+    GET DIAGNOSTICS v_count = ROW_COUNT;
+
+    RETURN v_count;
+END;
+$$ LANGUAGE plpgsql;
@@ -1,4 +1,4 @@
-// uses the existing apiClient for GET/DELETE; direct fetch for multipart POST
+// uses the existing apiClient for GET/DELETE; direct fetch for the streaming upload (raw body, no multipart)
 import { apiGet, apiDelete } from "../config/apiClient";
 
 const API_BASE = '/api'; // immer relativ, funktioniert mit Vite-Proxy und Backend-only
@@ -9,11 +9,13 @@ export const AttachmentsApi = {
     return apiGet(`/tasks/${taskId}/attachments`);
   },
   async upload(taskId, file){
-    const form = new FormData();
-    form.append("file", file);
-    const res = await fetch(`${API_BASE}/tasks/${taskId}/attachments`, {
+    const res = await fetch(`${API_BASE}/tasks/${taskId}/attachments/stream`, {
       method: "POST",
-      body: form
+      headers: {
+        "Content-Type": file.type || "application/octet-stream",
+        "X-Filename": encodeURIComponent(file.name || "unnamed")
+      },
+      body: file
     });
     if(!res.ok){
       let msg = `HTTP ${res.status}`;
@@ -22,6 +24,13 @@ export const AttachmentsApi = {
     }
     return res.json();
   },
+  // Metadaten vieler Tasks in einem Request: { [taskId]: Attachment[] }
+  listForTasks(taskIds){
+    return apiGet(`/attachments?taskIds=${taskIds.join(",")}`);
+  },
+  listForStation(station){
+    return apiGet(`/attachments?station=${encodeURIComponent(station)}`);
+  },
   remove(taskId, attId){
     return apiDelete(`/tasks/${taskId}/attachments/${attId}`);
   }
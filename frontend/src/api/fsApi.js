@@ -57,6 +57,27 @@ export async function fsSubfolders(sub = "") {
   return [];
 }
 
+/**
+ * Sucht im serverseitigen Ordner-Index (ganzes Share, nicht nur aktuelle Ebene).
+ * Erwartet vom Backend: { folders: [ "Kunde/2024/FA123", ... ], indexedAt }
+ */
+export async function fsSearch(q, limit = 50) {
+  const qs = new URLSearchParams({ q, limit: String(limit) });
+  const res = await apiGet(`/fs/search?${qs.toString()}`);
+  return Array.isArray(res?.folders) ? res.folders : [];
+}
+
+/**
+ * Sammelprüfung der Dateipfade von Tasks (ohne taskIds: alle mit Dateipfad).
+ * Liefert { [taskId]: { exists, directory, lastModified, error } }
+ */
+export async function fsValidateTasks(taskIds = []) {
+  const qs = new URLSearchParams();
+  if (taskIds.length) qs.set("taskIds", taskIds.join(","));
+  const res = await apiGet(`/fs/validate-tasks?${qs.toString()}`);
+  return res && typeof res === "object" ? res : {};
+}
+
 /**
  * Existenz-Check des Ordners ?sub=...
  * Erwartet vom Backend: { exists: boolean }
@@ -0,0 +1,70 @@
+// frontend/src/api/taskSocket.js
+// Optionaler WebSocket-Kanal zum Board (/api/tasks/ws) – nur aktiv mit VITE_TASK_WS=true
+// und websocket.enabled=true im Backend. Ohne Verbindung bleibt alles bei SSE + REST.
+//
+// Frames vom Server: { t: "u", id, v, bv?, f } | { t: "d", id } | { t: "r" } | { t: "ack"|"err", ref, msg? }
+
+export const taskSocketEnabled = import.meta?.env?.VITE_TASK_WS === "true";
+
+const ACK_TIMEOUT_MS = 5000;
+
+function socketUrl() {
+  const isVite = typeof window !== "undefined" && window.location.port === "5173";
+  if (isVite) return "ws://localhost:8080/api/tasks/ws";
+  const proto = window.location.protocol === "https:" ? "wss:" : "ws:";
+  return `${proto}//${window.location.host}/api/tasks/ws`;
+}
+
+/**
+ * Öffnet den Socket und verbindet bei Abbruch neu (Backoff bis 30 s).
+ * onFrame(frame) bekommt alle Server-Frames außer ack/err.
+ */
+export function openTaskSocket({ onFrame, onOpen, onClose } = {}) {
+  let ws = null;
+  let closed = false;
+  let retry = 0;
+  let seq = 0;
+  const pending = new Map(); // ref -> { resolve, reject, timer }
+
+  const connect = () => {
+    ws = new WebSocket(socketUrl());
+    ws.onopen = () => { retry = 0; onOpen?.(); };
+    ws.onmessage = (ev) => {
+      let frame;
+      try { frame = JSON.parse(ev.data); } catch { return; }
+      if (frame.t === "ack" || frame.t === "err") {
+        const p = pending.get(frame.ref);
+        if (!p) return;
+        pending.delete(frame.ref);
+        clearTimeout(p.timer);
+        if (frame.t === "ack") p.resolve(); else p.reject(new Error(frame.msg || "Fehler"));
+        return;
+      }
+      onFrame?.(frame);
+    };
+    ws.onclose = () => {
+      for (const p of pending.values()) { clearTimeout(p.timer); p.reject(new Error("Verbindung getrennt")); }
+      pending.clear();
+      onClose?.();
+      if (closed) return;
+      const delay = Math.min(30000, 1000 * 2 ** retry++);
+      setTimeout(() => { if (!closed) connect(); }, delay);
+    };
+  };
+  connect();
+
+  const isOpen = () => ws?.readyState === WebSocket.OPEN;
+
+  /** Sortierung einer Spalte über den Socket (Ersatz für PATCH /tasks/sort). */
+  const sort = (stationId, ids) => new Promise((resolve, reject) => {
+    if (!isOpen()) { reject(new Error("Socket nicht verbunden")); return; }
+    const ref = String(++seq);
+    const timer = setTimeout(() => { pending.delete(ref); reject(new Error("Timeout")); }, ACK_TIMEOUT_MS);
+    pending.set(ref, { resolve, reject, timer });
+    ws.send(JSON.stringify({ op: "sort", ref, stationId, ids }));
+  });
+
+  const close = () => { closed = true; ws?.close(); };
+
+  return { isOpen, sort, close };
+}
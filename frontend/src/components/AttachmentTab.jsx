@@ -99,7 +99,18 @@ export default function AttachmentTab({ taskId, toast }) {
                 borderBottom: "1px solid #e5e7eb"
               }}
             >
-              <span title={a.filename} style={{ overflow: "hidden", textOverflow: "ellipsis", whiteSpace: "nowrap" }}>
+              <span title={a.filename} style={{ display: "flex", alignItems: "center", gap: 8, overflow: "hidden", textOverflow: "ellipsis", whiteSpace: "nowrap" }}>
+                {a.thumbnailUrl && (
+                  <img
+                    src={a.thumbnailUrl}
+                    alt=""
+                    loading="lazy"
+                    width={40}
+                    height={40}
+                    style={{ objectFit: "cover", borderRadius: 4, flexShrink: 0 }}
+                    onError={e => { e.currentTarget.style.display = "none"; }}
+                  />
+                )}
                 {a.filename}{" "}
                 <small style={{ color: "#6b7280" }}>
                   ({formatBytes(a.size)})
@@ -5,7 +5,7 @@
 // (Funktionalität unverändert)
 
 import React, { useEffect, useMemo, useState, useCallback, useRef } from "react";
-import { fsSubfolders, fsExists, fsMkdir, fsIsEmpty, fsRmdir } from "@/api/fsApi";
+import { fsSubfolders, fsExists, fsMkdir, fsIsEmpty, fsRmdir, fsSearch } from "@/api/fsApi";
 import useToast from "@/components/ui/useToast";
 import { fsHealth } from "@/api/fsApi";
 
@@ -203,6 +203,7 @@ export default function FolderPickerModal({
   const searchRef = useRef(null);
   const [hideDot, setHideDot] = useState(true);
   const [hideTech, setHideTech] = useState(true);
+  const [globalHits, setGlobalHits] = useState([]);   // Treffer aus dem Ordner-Index (ganzes Share)
 
   // Neuer Ordner
   const [newName, setNewName] = useState("");
@@ -272,6 +273,24 @@ export default function FolderPickerModal({
     return list;
   }, [entries, query, hideDot, hideTech]);
 
+  // Index-Suche über das ganze Share (entprellt, ab 2 Zeichen)
+  useEffect(() => {
+    const q = query.trim();
+    if (q.length < 2) { setGlobalHits([]); return; }
+    let active = true;
+    const t = setTimeout(async () => {
+      try {
+        const hits = await fsSearch(q, 30);
+        if (active) setGlobalHits(hits);
+      } catch {
+        if (active) setGlobalHits([]);
+      }
+    }, 250);
+    return () => { active = false; clearTimeout(t); };
+  }, [query]);
+
+  const openPath = (rel) => { setStack(String(rel).split("/").filter(Boolean)); setQuery(""); };
+
   const onSearchKeyDown = (e) => {
     if (e.key === "Escape") { setQuery(""); e.stopPropagation(); }
     if (e.key === "Enter") {
@@ -505,6 +524,21 @@ export default function FolderPickerModal({
                   </button>
                 )}
               </div>
+              {globalHits.length > 0 && (
+                <>
+                  <div style={{ marginTop: 10, ...styles.hint }}>Im ganzen Share:</div>
+                  <ul style={{ listStyle: 'none', padding: 0, margin: '6px 0 0', maxHeight: 180, overflowY: 'auto' }}>
+                    {globalHits.map((rel) => (
+                      <li key={rel} onClick={() => openPath(rel)} title={rel} style={styles.listItem}>
+                        <span aria-hidden>📁</span>
+                        <span style={{ flex: 1, minWidth: 0, overflow: 'hidden', textOverflow: 'ellipsis', whiteSpace: 'nowrap' }}>
+                          {rel}
+                        </span>
+                      </li>
+                    ))}
+                  </ul>
+                </>
+              )}
             </section>
 
             {/* Neuer Ordner */}
@@ -10,6 +10,7 @@ import useToast from "@/components/ui/useToast";
 import apiErrorMessage from "@/utils/apiErrorMessage";
 import { apiGet, apiPatch, apiPut } from "../config/apiClient";
 import { keyFromTask } from "@/utils/dueStyles";
+import { openTaskSocket, taskSocketEnabled } from "@/api/taskSocket";
 
 /** ====================== Utilities ====================== */
 const norm = (v) =>
@@ -192,6 +193,8 @@ export default function TaskBoard({ showDashboard = false, onToggleDashboard = (
   const [loadingHard, setLoadingHard] = useState(false);   // nur initial
   const [loadingSoft, setLoadingSoft] = useState(false);  // alle Refreshes
   const ignoreRefetchUntil = useRef(0);                   // SSE-Duplikate dämpfen
+  const socketRef = useRef(null);                         // optionaler WebSocket (Deltas + Sortierung)
+  const columnsRef = useRef({});                          // aktueller Stand für Delta-Frames
   const vpRef = useRef(null);
   const [edges, setEdges] = useState({ left: true, right: false, top: true, bottom: false });
   const [openSettings, setOpenSettings] = useState(false);
@@ -225,6 +228,12 @@ export default function TaskBoard({ showDashboard = false, onToggleDashboard = (
         order: orderedIds,
       };
 
+      // WebSocket offen → Sortierung über den Socket (kein eigener HTTP-Roundtrip)
+      if (socketRef.current?.isOpen()) {
+        await socketRef.current.sort(stationId, orderedIds);
+        return;
+      }
+
       // PATCH -> PUT-Fallback nur bei 405
       try {
         await apiPatch("/tasks/sort", payload);
@@ -324,6 +333,8 @@ export default function TaskBoard({ showDashboard = false, onToggleDashboard = (
     const es = new EventSource(url);	
  	let t = null;
  	const onTask = () => {
+	   // Socket liefert Deltas → SSE nur als Fallback
+	   if (socketRef.current?.isOpen()) return;
 	   // Speicherkollisionen vermeiden (Save triggert gleich nochmal via SSE)
 	   if (Date.now() < ignoreRefetchUntil.current) return;
 	   if (t) clearTimeout(t);
@@ -340,6 +351,55 @@ export default function TaskBoard({ showDashboard = false, onToggleDashboard = (
   }, [fetchAll]);
 
 
+  useEffect(() => { columnsRef.current = columnsById; }, [columnsById]);
+
+  // Optionaler WebSocket: Feld-Deltas direkt einspielen, alles Unklare → weicher Refetch
+  useEffect(() => {
+    if (!taskSocketEnabled) return;
+    let t = null;
+    const refetch = () => {
+      if (t) clearTimeout(t);
+      t = setTimeout(() => fetchAll({ mode: "soft" }), 400);
+    };
+    const byPrio = (a, b) => {
+      const pa = Number.isFinite(a?.prioritaet) ? a.prioritaet : 999999;
+      const pb = Number.isFinite(b?.prioritaet) ? b.prioritaet : 999999;
+      return pa !== pb ? pa - pb : (a?.id ?? 0) - (b?.id ?? 0);
+    };
+    const findColumn = (cols, id) => Object.keys(cols).find((k) => (cols[k] || []).some((x) => x?.id === id));
+
+    const onFrame = (frame) => {
+      const cols = columnsRef.current;
+      if (frame.t === "d") {
+        const colId = findColumn(cols, frame.id);
+        if (colId == null) return;
+        const next = { ...cols, [colId]: cols[colId].filter((x) => x?.id !== frame.id) };
+        columnsRef.current = next;
+        setColumnsById(next);
+        return;
+      }
+      if (frame.t !== "u") { if (frame.t === "r") refetch(); return; }
+
+      // Neuer Task oder Spaltenwechsel: Gruppierung macht fetchAll
+      if (frame.bv == null || "arbeitsstation" in (frame.f || {})) { refetch(); return; }
+      const colId = findColumn(cols, frame.id);
+      const task = colId != null ? cols[colId].find((x) => x?.id === frame.id) : null;
+      if (!task || task.version !== frame.bv) { refetch(); return; }
+
+      const patched = cols[colId].map((x) => (x?.id === frame.id ? { ...x, ...frame.f, version: frame.v } : x));
+      const next = { ...cols, [colId]: patched.sort(byPrio) };
+      columnsRef.current = next;
+      setColumnsById(next);
+    };
+
+    socketRef.current = openTaskSocket({ onFrame, onOpen: refetch });
+    return () => {
+      if (t) clearTimeout(t);
+      socketRef.current?.close();
+      socketRef.current = null;
+    };
+  }, [fetchAll]);
+
   useEffect(() => {
     const el = vpRef.current;
     if (!el) return;
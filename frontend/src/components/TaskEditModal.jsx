@@ -129,6 +129,8 @@ export default function TaskEditModal({
 	additionalWorks: Array.isArray(task?.additionalWorks) ? task.additionalWorks.slice() : []
 
   }));
+  // Ausgangsstand für den Drei-Wege-Merge im Backend (PATCH mit veralteter Version)
+  const initialFormRef = useRef(form);
   const setValue = (name, value) => setForm((prev) => ({ ...prev, [name]: value }));
 
   // Hybrid: Kunden laden + Modus (select/custom)
@@ -283,23 +285,23 @@ export default function TaskEditModal({
   };
 
   // Payload: nur statusCode, kein altes Enum-Feld
-  const buildPayload = () => {
+  const buildPayload = (src = form) => {
     const payload = {
-      bezeichnung: sanitize(form.bezeichnung),
-      teilenummer: sanitize(form.teilenummer),
-      kunde: sanitize(form.kunde),
-      endDatum: sanitize(form.endDatum),
-      aufwandStunden: Number.isFinite(Number(form.aufwandStunden)) ? Number(form.aufwandStunden) : 0,
-      zuständig: sanitize(form.zustaendig),
-      zusätzlicheInfos: sanitize(form.zusaetzlicheInfos),
-      arbeitsstation: sanitize(form.arbeitsstation),
-      statusCode: sanitize(form.status) ?? "NEU",
-      fai: !!form.fai,
-      qs: !!form.qs,
-      stk: Number.isFinite(Number(form.stk)) ? Number(form.stk) : undefined,
-      fa: sanitize(form.fa),
-      dateipfad: sanitize(form.dateipfad),
-	  additionalWorks: Array.isArray(form.additionalWorks) ? form.additionalWorks : []
+      bezeichnung: sanitize(src.bezeichnung),
+      teilenummer: sanitize(src.teilenummer),
+      kunde: sanitize(src.kunde),
+      endDatum: sanitize(src.endDatum),
+      aufwandStunden: Number.isFinite(Number(src.aufwandStunden)) ? Number(src.aufwandStunden) : 0,
+      zuständig: sanitize(src.zustaendig),
+      zusätzlicheInfos: sanitize(src.zusaetzlicheInfos),
+      arbeitsstation: sanitize(src.arbeitsstation),
+      statusCode: sanitize(src.status) ?? "NEU",
+      fai: !!src.fai,
+      qs: !!src.qs,
+      stk: Number.isFinite(Number(src.stk)) ? Number(src.stk) : undefined,
+      fa: sanitize(src.fa),
+      dateipfad: sanitize(src.dateipfad),
+	  additionalWorks: Array.isArray(src.additionalWorks) ? src.additionalWorks : []
 
     };
     Object.keys(payload).forEach((k) => { if (payload[k] == null) delete payload[k]; });
@@ -310,11 +312,19 @@ export default function TaskEditModal({
     if (!form.id) { toast.error("Ungültige Task-ID"); return; }
     setSubmitting(true);
     try {
-      await apiPatch(`/tasks/${form.id}`, buildPayload());
+      const headers = { "Content-Type": "application/json", Accept: "application/json" };
+      if (Number.isFinite(task?.version)) headers["If-Match"] = `"${task.version}"`;
+      await apiPatch(`/tasks/${form.id}`, { ...buildPayload(), base: buildPayload(initialFormRef.current) }, { headers });
       toast.success("Gespeichert");
       onSave?.();
       onClose?.();
     } catch (err) {
+      if (err?.status === 409) {
+        let fields = "";
+        try { fields = (JSON.parse(err.body)?.conflicts || []).join(", "); } catch { /* Body kein JSON */ }
+        toast.error(`Zwischenzeitlich von jemand anderem geändert${fields ? ` (${fields})` : ""} – bitte neu öffnen.`);
+        return;
+      }
       toast.error("Speichern fehlgeschlagen: " + (err?.message || ""));
     } finally {
       setSubmitting(false);
@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# SQL-Budget-Check: ruft alle lesenden /api-Endpoints einmal auf und vergleicht die Header
+# X-SQL-Statements (Anzahl) und X-SQL-Budget (Budget aus sql-budget.*) der Antwort.
+# Voraussetzung: Backend im Profil dev (sql-budget.response-header=true) mit Testdaten.
+# Exit-Code 1, sobald ein Endpoint über seinem Budget liegt, nicht mit 2xx antwortet oder die
+# Header fehlen (anderes Profil, Filter nicht aktiv). Schnellcheck gegen ein laufendes Backend –
+# die vollständige Prüfung inkl. schreibender Endpoints ist SqlBudgetIT (cd backend && mvn -Pit verify).
+#
+# Nutzung:   scripts/sql-budget-check.sh [BASE_URL]
+# Beispiel:  scripts/sql-budget-check.sh http://localhost:8080
+
+BASE_URL="${1:-http://localhost:8080}"
+
+command -v curl >/dev/null || { echo "[sql-budget] curl nicht gefunden"; exit 1; }
+
+# Eine vorhandene Task-ID für die Detail-Endpoints
+TASK_ID=$(curl -s "$BASE_URL/api/tasks" | grep -o '"id":[0-9]*' | head -1 | cut -d: -f2 || true)
+
+ENDPOINTS=(
+  "/api/tasks"
+  "/api/tasks/search?q=a"
+  "/api/tasks/stream/stats"
+  "/api/tasks/archive"
+  "/api/statuses"
+  "/api/arbeitsstationen"
+  "/api/assignees"
+  "/api/customers"
+  "/api/additional-works"
+  "/api/dashboard/backlog"
+  "/api/dashboard/utilization"
+  "/api/stats/auslastung"
+  "/api/settings/dueDate"
+  "/api/suggest?type=customer&q=a"
+  "/api/attachments/maintenance/stats"
+  "/api/fs/validate-tasks"
+)
+if [[ -n "$TASK_ID" ]]; then
+  ENDPOINTS+=("/api/tasks/$TASK_ID" "/api/tasks/$TASK_ID/attachments" "/api/attachments?taskIds=$TASK_ID")
+fi
+
+FAILED=0
+printf "%-45s %6s %10s %7s\n" "Endpoint" "HTTP" "Statements" "Budget"
+for path in "${ENDPOINTS[@]}"; do
+  headers=$(curl -s -o /dev/null -D - --max-time 30 "$BASE_URL$path" || true)
+  code=$(printf "%s" "$headers" | head -1 | awk '{print $2}')
+  count=$(printf "%s" "$headers" | grep -i '^x-sql-statements:' | awk '{print $2}' | tr -d '\r' || true)
+  budget=$(printf "%s" "$headers" | grep -i '^x-sql-budget:' | awk '{print $2}' | tr -d '\r' || true)
+  mark=""
+  if [[ ! "$code" =~ ^2[0-9][0-9]$ ]]; then
+    mark="  << HTTP ${code:-keine Antwort}"
+    FAILED=1
+  elif [[ -z "$count" || -z "$budget" ]]; then
+    mark="  << X-SQL-Statements/X-SQL-Budget fehlen (Profil dev?)"
+    FAILED=1
+  elif [[ "$count" -gt "$budget" ]]; then
+    mark="  << über Budget"
+    FAILED=1
+  fi
+  printf "%-45s %6s %10s %7s%s\n" "$path" "${code:--}" "${count:--}" "${budget:--}" "$mark"
+done
+
+if [[ $FAILED -ne 0 ]]; then
+  echo "[sql-budget] mindestens ein Endpoint über Budget, fehlerhaft oder ohne Header"
+  exit 1
+fi
+echo "[sql-budget] alle Endpoints im Budget"
@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# SSE-Lasttest: öffnet N gleichzeitige /api/tasks/stream-Verbindungen und zählt,
+# wie viele das initiale "ping"-Event erhalten. Danach prüft ein normaler Request,
+# ob der Server neben den offenen Streams noch antwortet.
+#
+# Nutzung:   scripts/sse-loadtest.sh [BASE_URL] [CLIENTS] [HOLD_SECONDS]
+# Beispiel:  scripts/sse-loadtest.sh http://pi:8080 400 30
+#
+# Vorher/Nachher-Vergleich (Pi 4):
+#   1) Backend normal starten (Java 17, Plattform-Threads)   → Lauf A
+#   2) Java-21-Image + SPRING_THREADS_VIRTUAL_ENABLED=true  → Lauf B
+#   CLIENTS schrittweise erhöhen, bis "connected" < CLIENTS oder der Kontroll-Request hängt.
+# Hinweis: ulimit -n auf dem Lastrechner ausreichend hoch setzen (je Client ein Socket).
+
+BASE_URL="${1:-http://localhost:8080}"
+CLIENTS="${2:-200}"
+HOLD="${3:-20}"
+STREAM_URL="$BASE_URL/api/tasks/stream"
+
+command -v curl >/dev/null || { echo "[sse-loadtest] curl nicht gefunden"; exit 1; }
+
+WORK="$(mktemp -d)"
+trap 'kill $(jobs -p) 2>/dev/null || true; rm -rf "$WORK"' EXIT
+
+echo "[sse-loadtest] $CLIENTS Clients → $STREAM_URL (halten ${HOLD}s)"
+START=$(date +%s)
+for i in $(seq 1 "$CLIENTS"); do
+  curl -sN --max-time "$HOLD" -H "Accept: text/event-stream" "$STREAM_URL" > "$WORK/$i.out" 2>/dev/null &
+done
+
+# Verbindungen aufbauen lassen
+sleep $(( HOLD / 2 > 0 ? HOLD / 2 : 1 ))
+
+CONNECTED=$(grep -l "event:ping" "$WORK"/*.out 2>/dev/null | wc -l | tr -d ' ')
+CTRL_TIME=$(curl -s -o /dev/null -w "%{time_total}" --max-time 10 "$BASE_URL/api/statuses" || echo "timeout")
+
+echo "[sse-loadtest] connected:       $CONNECTED / $CLIENTS"
+echo "[sse-loadtest] Kontroll-Request: ${CTRL_TIME}s (GET /api/statuses)"
+
+wait || true
+echo "[sse-loadtest] fertig nach $(( $(date +%s) - START ))s"